@@ -0,0 +1,17 @@
+#!/usr/bin/env bash
+# Prints the bulk-insert throughput of todos with assignees through JPA and the
+# JDBC statements per todo. Runs on an in-memory H2 database unless datasource
+# properties are passed, e.g.
+#   scripts/bulk-insert-benchmark.sh --spring.datasource.url=jdbc:mariadb://localhost:3306/bench
+#
+# Usage: scripts/bulk-insert-benchmark.sh [--property=value ...]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+./mvnw -q test-compile
+# separate run, as exec.args would also apply to the compile-model execution
+./mvnw -q exec:java \
+    -Dexec.mainClass=de.unistuttgart.iste.ese.api.BulkInsertBenchmark \
+    -Dexec.classpathScope=test \
+    -Dexec.args="$*"
@@ -0,0 +1,16 @@
+#!/usr/bin/env bash
+# Prints the throughput of the todo classification (compiled model) at 1, 8 and
+# 64 concurrent callers, measured with JMH.
+#
+# Usage: scripts/classification-benchmark.sh
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+./mvnw -q test-compile
+# separate run, as exec.args would also apply to the compile-model execution;
+# exec:exec rather than exec:java, so the JVMs forked by JMH get the test classpath
+./mvnw -q exec:exec \
+    -Dexec.executable=java \
+    -Dexec.classpathScope=test \
+    -Dexec.args="-classpath %classpath de.unistuttgart.iste.ese.api.ClassificationBenchmark"
@@ -0,0 +1,12 @@
+#!/usr/bin/env bash
+# Prints payload size and serialization time of the GET /api/v1/todos response
+# for JSON (indented/compact/gzip), Smile and CBOR at several list sizes.
+#
+# Usage: scripts/payload-benchmark.sh
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+./mvnw -q test-compile exec:java \
+    -Dexec.mainClass=de.unistuttgart.iste.ese.api.PayloadBenchmark \
+    -Dexec.classpathScope=test
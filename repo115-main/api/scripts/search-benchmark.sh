@@ -0,0 +1,14 @@
+#!/usr/bin/env bash
+# Prints p50 and p99 of full text searches over 1,000,000 generated todos, for
+# common, rare and mixed query terms.
+#
+# Usage: scripts/search-benchmark.sh
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+./mvnw -q test-compile
+# separate run, as exec.args would also apply to the compile-model execution
+MAVEN_OPTS="${MAVEN_OPTS:-} -Xmx3g" ./mvnw -q exec:java \
+    -Dexec.mainClass=de.unistuttgart.iste.ese.api.SearchIndexBenchmark \
+    -Dexec.classpathScope=test
@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Measures the time from container start until GET /api/v1/todos answers with 200
+# for one target of the api Dockerfile, against a throwaway MariaDB container.
+# The schema comes from the Flyway migrations and Hibernate only validates it,
+# as in production; the first run includes the migrations.
+#
+# Usage: scripts/time-to-first-request.sh [production-stage|production-startup-stage] [runs]
+set -euo pipefail
+
+TARGET=${1:-production-stage}
+RUNS=${2:-5}
+PORT=${PORT:-18080}
+NETWORK=ttfr-net
+
+cd "$(dirname "$0")/.."
+
+cleanup() {
+    docker rm -f ttfr-api ttfr-db >/dev/null 2>&1 || true
+    docker network rm "$NETWORK" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+cleanup
+
+echo "building $TARGET ..."
+docker build -q --target "$TARGET" -t "rest-api:$TARGET" . >/dev/null
+
+docker network create "$NETWORK" >/dev/null
+docker run -d --name ttfr-db --network "$NETWORK" -e MARIADB_ROOT_PASSWORD=root mariadb:11 >/dev/null
+until docker exec ttfr-db mariadb-admin ping -uroot -proot --silent >/dev/null 2>&1; do
+    sleep 1
+done
+
+total=0
+for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    docker run -d --name ttfr-api --network "$NETWORK" -p "$PORT:8080" \
+        -e SPRING_DATASOURCE_URL="jdbc:mariadb://ttfr-db:3306/pe2?createDatabaseIfNotExist=true" \
+        -e SPRING_DATASOURCE_USERNAME=root -e SPRING_DATASOURCE_PASSWORD=root \
+        "rest-api:$TARGET" >/dev/null
+    until curl -sf -o /dev/null "http://localhost:$PORT/api/v1/todos"; do
+        sleep 0.05
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    total=$(( total + elapsed ))
+    echo "run $run: ${elapsed} ms"
+    docker rm -f ttfr-api >/dev/null
+done
+echo "$TARGET: mean time-to-first-request $(( total / RUNS )) ms over $RUNS runs"
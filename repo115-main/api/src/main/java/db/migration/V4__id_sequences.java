@@ -0,0 +1,48 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Creates the sequences the todo and assignee ids are allocated from.
+ * <p>
+ * Hibernate's pooled optimizer fetches one sequence value per block of
+ * {@link #ALLOCATION_SIZE} ids and hands out the ids up to and including that
+ * value, so each sequence starts one block above the highest id in use. The
+ * start value depends on the data, which is why this migration is written in
+ * Java: neither MariaDB nor H2 can take it from a subquery in plain SQL.
+ * <p>
+ * The increment is the block size; the entities read it from the database at
+ * startup, so it can be changed by a later {@code ALTER SEQUENCE ... INCREMENT BY}
+ * migration. The {@code AUTO_INCREMENT} columns stay for manual inserts.
+ */
+public class V4__id_sequences extends BaseJavaMigration {
+
+    static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            // archived todos keep their id, so new ids must not collide with them either
+            long todos = Math.max(maxId(statement, "todos"), maxId(statement, "todos_archive"));
+            createSequence(statement, "todos_seq", todos);
+            createSequence(statement, "assignees_seq", maxId(statement, "assignees"));
+        }
+    }
+
+    private static long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static void createSequence(Statement statement, String name, long maxId) throws SQLException {
+        statement.execute("CREATE SEQUENCE " + name + " START WITH " + (maxId + ALLOCATION_SIZE)
+            + " INCREMENT BY " + ALLOCATION_SIZE);
+    }
+}
@@ -0,0 +1,116 @@
+package de.unistuttgart.iste.ese.api.Actuator;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admin endpoint for Java Flight Recorder: {@code GET /actuator/jfr?duration=30s&settings=profile}
+ * records for the given time with the given JFR settings ({@code default} or
+ * {@code profile}) and returns the {@code .jfr} file, for example to open it in
+ * JDK Mission Control. The recording includes the custom events of the
+ * {@code Profiling} package, but no environment variables or system properties.
+ * Only one recording runs at a time, a second request gets 429. Exposed only with
+ * the {@code admin} profile, on the management port.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class FlightRecordingEndpoint {
+
+    private static final Log LOG = LogFactory.getLog(FlightRecordingEndpoint.class);
+
+    private final Duration maxDuration;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FlightRecordingEndpoint(@Value("${todo.jfr.max-duration:5m}") Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> record(@Nullable Duration duration, @Nullable String settings)
+        throws IOException, InterruptedException {
+        Duration recordingTime = duration == null ? Duration.ofSeconds(30) : duration;
+        if (recordingTime.isNegative() || recordingTime.isZero() || recordingTime.compareTo(maxDuration) > 0) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings == null ? "profile" : settings);
+        } catch (IOException | ParseException e) {
+            // unknown settings name
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (!lock.tryLock()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+        try {
+            Path file = Files.createTempFile("todo-api-", ".jfr");
+            try (Recording recording = new Recording(configuration)) {
+                recording.setName("actuator");
+                // both settings record the environment and the system properties, which hold the database password
+                recording.disable("jdk.InitialEnvironmentVariable");
+                recording.disable("jdk.InitialSystemProperty");
+                recording.start();
+                Thread.sleep(recordingTime.toMillis());
+                recording.stop();
+                recording.dump(file);
+            } catch (IOException | InterruptedException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            LOG.info("Flight recording with settings " + configuration.getName() + " for " + recordingTime
+                + " written (" + Files.size(file) + " bytes)");
+            return new WebEndpointResponse<>(new TemporaryFileResource(file));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The recording file, deleted once the response has been streamed.
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public boolean isFile() {
+            // not a file, so the response is written from getInputStream() and not with a file copy
+            return false;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+    }
+}
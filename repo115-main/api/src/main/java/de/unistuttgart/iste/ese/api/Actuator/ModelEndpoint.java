@@ -0,0 +1,46 @@
+package de.unistuttgart.iste.ese.api.Actuator;
+
+import de.unistuttgart.iste.ese.api.Services.ModelReloadService;
+import de.unistuttgart.iste.ese.api.TodoModel;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin endpoint for the classification model: {@code GET /actuator/model} shows
+ * the model status, {@code POST /actuator/model} reloads the model file.
+ */
+@Component
+@Endpoint(id = "model")
+public class ModelEndpoint {
+
+    private final TodoModel todoModel;
+    private final ModelReloadService modelReloadService;
+
+    public ModelEndpoint(TodoModel todoModel, ModelReloadService modelReloadService) {
+        this.todoModel = todoModel;
+        this.modelReloadService = modelReloadService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("loaded", todoModel.isLoaded());
+        status.put("path", modelReloadService.getModelPath().toString());
+        status.put("lastReload", modelReloadService.getLastReload());
+        status.put("lastReloadSucceeded", modelReloadService.isLastReloadSucceeded());
+        status.put("lastError", modelReloadService.getLastError());
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> reload() {
+        // waits for the background load, the live model keeps serving in the meantime
+        modelReloadService.reload().join();
+        return status();
+    }
+}
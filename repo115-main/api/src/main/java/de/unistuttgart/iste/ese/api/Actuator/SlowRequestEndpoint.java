@@ -0,0 +1,40 @@
+package de.unistuttgart.iste.ese.api.Actuator;
+
+import de.unistuttgart.iste.ese.api.Trace.SlowRequestLog;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin endpoint for request traces: {@code GET /actuator/slowrequests} shows the
+ * slowest requests and the latest requests over the threshold with their SQL,
+ * model and serialization timings, {@code DELETE /actuator/slowrequests} forgets them.
+ */
+@Component
+@Endpoint(id = "slowrequests")
+public class SlowRequestEndpoint {
+
+    private final SlowRequestLog slowRequestLog;
+
+    public SlowRequestEndpoint(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowRequests() {
+        Map<String, Object> slowRequests = new LinkedHashMap<>();
+        slowRequests.put("threshold", slowRequestLog.getThreshold().toString());
+        slowRequests.put("slowest", slowRequestLog.slowest());
+        slowRequests.put("overThreshold", slowRequestLog.recent());
+        return slowRequests;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowRequestLog.clear();
+    }
+}
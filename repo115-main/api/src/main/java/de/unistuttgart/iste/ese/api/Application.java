@@ -1,9 +1,17 @@
 package de.unistuttgart.iste.ese.api;
 
+import de.unistuttgart.iste.ese.api.Controllers.AssigneeController;
+import de.unistuttgart.iste.ese.api.Controllers.CsvExportController;
+import de.unistuttgart.iste.ese.api.Controllers.ToDoController;
+import de.unistuttgart.iste.ese.api.Services.ModelReloadService;
 import jakarta.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -15,4 +23,35 @@ public class Application {
         SpringApplication.run(Application.class, args);
     }
 
+    @Bean
+    public TodoModel todoModel(@Value("${todo.model.path:model.pmml}") String modelPath) {
+        return new TodoModel(modelPath);
+    }
+
+    /**
+     * With {@code spring.main.lazy-initialization=true} (startup profile) the
+     * controllers and everything they depend on are still created at startup, so
+     * the first request doesn't pay for them; the model watcher must run from the start.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerRequestPath() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ToDoController.class, AssigneeController.class,
+            CsvExportController.class, ModelReloadService.class);
+    }
+
+    /**
+     * Migrates the schema on startup unless {@code spring.flyway.enabled=false}.
+     * Spring Boot checks that flag with a condition, which the AOT-built startup
+     * image evaluates at build time; reading it here again lets the AOT cache
+     * training run in the Dockerfile start without a database.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(Environment environment) {
+        return flyway -> {
+            if (environment.getProperty("spring.flyway.enabled", Boolean.class, true)) {
+                flyway.migrate();
+            }
+        };
+    }
+
 }
@@ -0,0 +1,237 @@
+package de.unistuttgart.iste.ese.api;
+
+import de.unistuttgart.iste.ese.api.Search.TermTokenizer;
+import org.jpmml.model.TermUtil;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Compact binary form of a TF-IDF + linear classifier PMML model, as produced
+ * by {@link ModelCompiler} at build time.
+ * <p>
+ * Layout (big-endian): magic, version, CRC32C of the source PMML, positive and
+ * negative target category, intercept, term count, the IDF constants and the
+ * coefficients as two double arrays and finally the vocabulary as
+ * length-prefixed UTF-8 strings. Scoring is a tokenization of the text plus a
+ * dot product over the term counts, without any PMML runtime.
+ * <p>
+ * Scoring allocates nothing but the lowercased text: the tokens of
+ * {@link TermTokenizer#tokenize} are scanned in place and looked up by character
+ * range in an open-addressing table over the vocabulary.
+ */
+public final class CompiledTodoModel {
+
+    static final int MAGIC = 0x54444D42; // "TDMB"
+    static final int VERSION = 1;
+
+    private final long sourceChecksum;
+    private final int positiveCategory;
+    private final int negativeCategory;
+    private final double intercept;
+    private final String[] terms;
+    private final double[] idf;
+    private final double[] coefficients;
+    // idf * coefficient, so scoring needs one multiplication per matched token
+    private final double[] weights;
+    // open addressing with linear probing: term at a slot and its index into weights
+    private final String[] slotTerms;
+    private final int[] slotIndexes;
+    private final int slotMask;
+
+    CompiledTodoModel(long sourceChecksum, int positiveCategory, int negativeCategory, double intercept,
+                      String[] terms, double[] idf, double[] coefficients) {
+        if (terms.length != idf.length || terms.length != coefficients.length) {
+            throw new IllegalArgumentException("Vocabulary, IDF and coefficient arrays differ in length");
+        }
+        this.sourceChecksum = sourceChecksum;
+        this.positiveCategory = positiveCategory;
+        this.negativeCategory = negativeCategory;
+        this.intercept = intercept;
+        this.terms = terms;
+        this.idf = idf;
+        this.coefficients = coefficients;
+        this.weights = new double[terms.length];
+        // at most half full, so probe sequences stay short
+        int slots = Integer.highestOneBit(Math.max(terms.length, 1) * 2) * 2;
+        this.slotTerms = new String[slots];
+        this.slotIndexes = new int[slots];
+        this.slotMask = slots - 1;
+        for (int i = 0; i < terms.length; i++) {
+            weights[i] = idf[i] * coefficients[i];
+            int slot = spread(terms[i].hashCode()) & slotMask;
+            while (slotTerms[slot] != null) {
+                if (slotTerms[slot].equals(terms[i])) {
+                    throw new IllegalArgumentException("Duplicate term in vocabulary: " + terms[i]);
+                }
+                slot = (slot + 1) & slotMask;
+            }
+            slotTerms[slot] = terms[i];
+            slotIndexes[slot] = i;
+        }
+    }
+
+    /**
+     * Reads a compiled model, typically from a memory-mapped file.
+     *
+     * @param buffer The binary model, positioned at its start.
+     * @return The model.
+     * @throws IllegalArgumentException If the buffer does not contain a valid model.
+     */
+    public static CompiledTodoModel read(ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a compiled todo model");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported compiled model version " + version);
+            }
+            long sourceChecksum = buffer.getLong();
+            int positiveCategory = buffer.getInt();
+            int negativeCategory = buffer.getInt();
+            double intercept = buffer.getDouble();
+            int termCount = buffer.getInt();
+            if (termCount < 0 || termCount > buffer.remaining() / (2 * Double.BYTES)) {
+                throw new IllegalArgumentException("Invalid term count " + termCount);
+            }
+            double[] idf = new double[termCount];
+            buffer.asDoubleBuffer().get(idf);
+            buffer.position(buffer.position() + termCount * Double.BYTES);
+            double[] coefficients = new double[termCount];
+            buffer.asDoubleBuffer().get(coefficients);
+            buffer.position(buffer.position() + termCount * Double.BYTES);
+            String[] terms = new String[termCount];
+            for (int i = 0; i < termCount; i++) {
+                byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(bytes);
+                terms[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return new CompiledTodoModel(sourceChecksum, positiveCategory, negativeCategory, intercept,
+                terms, idf, coefficients);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated compiled model", e);
+        }
+    }
+
+    /**
+     * Writes the model in its binary form.
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeLong(sourceChecksum);
+        data.writeInt(positiveCategory);
+        data.writeInt(negativeCategory);
+        data.writeDouble(intercept);
+        data.writeInt(terms.length);
+        for (double value : idf) {
+            data.writeDouble(value);
+        }
+        for (double value : coefficients) {
+            data.writeDouble(value);
+        }
+        for (String term : terms) {
+            byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+            data.writeShort(bytes.length);
+            data.write(bytes);
+        }
+        data.flush();
+    }
+
+    /**
+     * Predicts the target category of a text.
+     *
+     * @param text The text to classify.
+     * @return The predicted target category, as it is stored in the PMML data dictionary.
+     */
+    public int predict(String text) {
+        // logit normalization: the positive category wins iff its probability exceeds 0.5
+        return score(text) > 0.0 ? positiveCategory : negativeCategory;
+    }
+
+    /**
+     * @return The linear score of the positive category.
+     */
+    double score(String text) {
+        double score = intercept;
+        if (text != null) {
+            String lower = text.toLowerCase(Locale.ROOT);
+            int length = lower.length();
+            int position = 0;
+            while (position < length) {
+                while (position < length && isWordSeparator(lower.charAt(position))) {
+                    position++;
+                }
+                int start = position;
+                while (position < length && !isWordSeparator(lower.charAt(position))) {
+                    position++;
+                }
+                int end = position;
+                while (start < end && TermUtil.isPunctuation(lower.charAt(start))) {
+                    start++;
+                }
+                while (end > start && TermUtil.isPunctuation(lower.charAt(end - 1))) {
+                    end--;
+                }
+                if (start < end) {
+                    int index = indexOf(lower, start, end);
+                    if (index >= 0) {
+                        score += weights[index];
+                    }
+                }
+            }
+        }
+        return score;
+    }
+
+    /**
+     * @return The vocabulary index of {@code text[start, end)}, or -1 if it is not a term.
+     */
+    private int indexOf(String text, int start, int end) {
+        // String.hashCode of the range
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        int length = end - start;
+        for (int slot = spread(hash) & slotMask; ; slot = (slot + 1) & slotMask) {
+            String term = slotTerms[slot];
+            if (term == null) {
+                return -1;
+            }
+            if (term.length() == length && term.regionMatches(0, text, start, length)) {
+                return slotIndexes[slot];
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    // the characters of the regular expression \s that TermTokenizer splits on
+    private static boolean isWordSeparator(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * @return The CRC32C checksum of the PMML document this model was compiled from.
+     */
+    public long getSourceChecksum() {
+        return sourceChecksum;
+    }
+
+    /**
+     * @return The size of the vocabulary.
+     */
+    public int getTermCount() {
+        return terms.length;
+    }
+}
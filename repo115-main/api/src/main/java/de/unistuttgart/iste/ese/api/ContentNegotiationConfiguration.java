@@ -0,0 +1,31 @@
+package de.unistuttgart.iste.ese.api;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of the JSON responses for clients that ask for them with
+ * {@code Accept: application/x-jackson-smile} or {@code Accept: application/cbor}.
+ * Both use the same Jackson settings as the JSON converter; JSON stays the
+ * default for {@code Accept: *}{@code /*} and requests without an Accept header.
+ */
+@Configuration
+public class ContentNegotiationConfiguration {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(
+            builder.factory(new SmileFactory()).indentOutput(false).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(
+            builder.factory(new CBORFactory()).indentOutput(false).build());
+    }
+}
@@ -1,21 +1,35 @@
 package de.unistuttgart.iste.ese.api.Controllers;
 
 import de.unistuttgart.iste.ese.api.Entities.Assignee;
+import de.unistuttgart.iste.ese.api.Repositories.FieldProjection;
 import de.unistuttgart.iste.ese.api.Services.AssigneeService;
+import de.unistuttgart.iste.ese.api.Services.DuplicateEmailException;
+import de.unistuttgart.iste.ese.api.Services.PreconditionFailedException;
+import de.unistuttgart.iste.ese.api.Snapshot.SnapshotResponder;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/assignees")
 @CrossOrigin(origins = "http://localhost:3000")
 public class AssigneeController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SUGGEST_LIMIT = 50;
+
     private final AssigneeService assigneeService;
+    private final SnapshotResponder snapshotResponder;
 
-    public AssigneeController(AssigneeService assigneeService) {
+    public AssigneeController(AssigneeService assigneeService, SnapshotResponder snapshotResponder) {
         this.assigneeService = assigneeService;
+        this.snapshotResponder = snapshotResponder;
     }
 
     @PostMapping
@@ -39,6 +53,8 @@ public class AssigneeController {
             }
             Assignee savedAssignee = assigneeService.createAssignee(assignee);
             return ResponseEntity.status(201).body(savedAssignee);
+        } catch (DuplicateEmailException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500)
                 .body("Error creating assignee: " + e.getMessage());
@@ -46,22 +62,71 @@ public class AssigneeController {
     }
 
     @GetMapping
-    public List<Assignee> getAllAssignees() {
-        return assigneeService.getAllAssignees();
+    public ResponseEntity<?> getAllAssignees(@RequestParam(value = "fields", required = false) String fields,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (fields == null) {
+            ResponseEntity<byte[]> snapshot = snapshotResponder.respond("assignees", accept, assigneeService::getAllAssignees);
+            return snapshot != null ? snapshot : ResponseEntity.ok(assigneeService.getAllAssignees());
+        }
+        try {
+            return ResponseEntity.ok(assigneeService.getAllAssigneeFields(FieldProjection.parse(fields)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestAssignees(@RequestParam("q") String query,
+                                              @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (query.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body("Suchbegriff darf nicht leer sein");
+        }
+        if (limit < 1 || limit > MAX_SUGGEST_LIMIT) {
+            return ResponseEntity.badRequest().body("limit muss zwischen 1 und " + MAX_SUGGEST_LIMIT + " liegen");
+        }
+        return ResponseEntity.ok(assigneeService.suggestAssignees(query, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Assignee> getAssigneeById(@PathVariable long id){
+    public ResponseEntity<?> getAssigneeById(@PathVariable long id,
+                                             @RequestParam(value = "fields", required = false) String fields){
+        if (fields != null) {
+            try {
+                Map<String, Object> assignee = assigneeService.getAssigneeFieldsById(id, FieldProjection.parse(fields));
+                return assignee != null ? ResponseEntity.ok(assignee) : ResponseEntity.notFound().build();
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         try {
             Assignee assignee = assigneeService.getAssigneeById(id);
-            return ResponseEntity.ok(assignee);
+            return ResponseEntity.ok().eTag(ETags.of(assignee.getVersion())).body(assignee);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    @GetMapping("/{id}/todos")
+    public ResponseEntity<?> getTodosOfAssignee(@PathVariable long id,
+                                                @RequestParam(value = "page", defaultValue = "0") int page,
+                                                @RequestParam(value = "size", defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("page muss >= 0 und size zwischen 1 und " + MAX_PAGE_SIZE + " sein");
+        }
+        if (!assigneeService.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new PagedModel<>(assigneeService.getToDosOfAssignee(id, PageRequest.of(page, size))));
+    }
+
+    @GetMapping("/workload")
+    public ResponseEntity<?> getWorkload() {
+        return ResponseEntity.ok(assigneeService.getWorkload());
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<Assignee> updateAssignee(@PathVariable long id, @RequestBody Assignee assigneeDetails) {
+    public ResponseEntity<?> updateAssignee(@PathVariable long id, @RequestBody Assignee assigneeDetails,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (!assigneeService.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
@@ -69,8 +134,16 @@ public class AssigneeController {
             return ResponseEntity.badRequest().build();
         }
         assigneeDetails.setId(id); // ID setzen
-        Assignee updated = assigneeService.updateAssignee(assigneeDetails);
-        return ResponseEntity.ok(updated);
+        try {
+            Assignee updated = assigneeService.updateAssignee(assigneeDetails, ETags.expectedVersions(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(ETags.of(e.getCurrentVersion())).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Assignee wurde gleichzeitig geändert, bitte neu laden");
+        } catch (DuplicateEmailException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
     }
 
     @DeleteMapping("/{id}")
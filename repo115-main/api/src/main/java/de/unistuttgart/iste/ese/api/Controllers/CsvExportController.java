@@ -1,70 +1,121 @@
 package de.unistuttgart.iste.ese.api.Controllers;
 
-import de.unistuttgart.iste.ese.api.Entities.Assignee;
-import de.unistuttgart.iste.ese.api.Entities.ToDo;
+import de.unistuttgart.iste.ese.api.Export.ExportJob;
+import de.unistuttgart.iste.ese.api.Export.ExportJobService;
+import de.unistuttgart.iste.ese.api.Export.TodoCsvWriter;
 import de.unistuttgart.iste.ese.api.Services.ToDoService;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
-import java.io.StringWriter;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/v1/csv-downloads")
 public class CsvExportController {
 
+    private static final Log LOG = LogFactory.getLog(CsvExportController.class);
+
     private final ToDoService toDoService;
+    private final ExportJobService exportJobService;
 
-    public CsvExportController(ToDoService toDoService) {
+    public CsvExportController(ToDoService toDoService, ExportJobService exportJobService) {
         this.toDoService = toDoService;
+        this.exportJobService = exportJobService;
     }
 
+    /**
+     * Writes the CSV directly to the response while the rows are read, so the
+     * export never holds the whole table in memory.
+     */
     @GetMapping("/todos")
-    public ResponseEntity<String> getTodosCsv() {
-        List<ToDo> todos = toDoService.getAllToDos();
-
-        StringWriter writer = new StringWriter();
-        CSVFormat format = CSVFormat.RFC4180.builder()
-                .setHeader("id", "title", "description", "finished", "assignees", "createdDate", "dueDate",
-                        "finishedDate", "category", "priority")
-                .build();
+    public void getTodosCsv(HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"todos.csv\"");
 
-        try (CSVPrinter printer = new CSVPrinter(writer, format)) {
-            for (ToDo todo : todos) {
-                String assigneeString = "";
-                if (todo.getAssigneeList() != null && !todo.getAssigneeList().isEmpty()) {
-                    assigneeString = todo.getAssigneeList().stream()
-                            .map(a -> a.getPrename() + " " + a.getName())
-                            .collect(Collectors.joining("+"));
+        try (TodoCsvWriter csv = new TodoCsvWriter(response.getWriter())) {
+            toDoService.exportToDos(todo -> {
+                try {
+                    csv.write(todo);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Starts the same export as {@code GET /todos} in the background; the status
+     * is polled at the returned location.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> startExportJob() {
+        try {
+            ExportJob job = exportJobService.startExport();
+            LOG.info("Export job started: " + job.getId());
+            URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{id}").buildAndExpand(job.getId()).toUri();
+            return ResponseEntity.accepted().location(location).body(job);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Export job rejected, queue is full");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "60")
+                .body("Zu viele laufende Exporte, bitte später erneut versuchen");
+        }
+    }
 
-                printer.printRecord(
-                        todo.getId(),
-                        todo.getTitle(),
-                        todo.getDescription(),
-                        String.valueOf(todo.isFinished()).toLowerCase(), // "true"/"false"
-                        assigneeString,
-                        todo.getCreatedDate(),
-                        todo.getDueDate(),
-                        todo.getFinishedDate() != null ? todo.getFinishedDate() : "",
-                        todo.getCategory(),
-                        todo.getPriority());
-            }
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getExportJob(@PathVariable String id) {
+        ExportJob job = exportJobService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(job);
+    }
 
+    /**
+     * Serves the finished file. Range requests are answered with 206 by Spring's
+     * resource handling, so interrupted downloads can be resumed; the file of a job
+     * never changes, so its id is a strong ETag for {@code If-Range}.
+     * <p>
+     * Sent as {@code application/octet-stream}: response compression applies to
+     * {@code text/csv} and would garble byte ranges.
+     */
+    @GetMapping("/jobs/{id}/file")
+    public ResponseEntity<?> downloadExportJob(@PathVariable String id) {
+        ExportJob job = exportJobService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.getStatus() != ExportJob.Status.DONE) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Export ist nicht fertig: " + job.getStatus());
+        }
+        Resource file = new FileSystemResource(job.getFile());
         return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"todos.csv\"")
-                .body(writer.toString());
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("todos.csv").build().toString())
+            .eTag(job.getId())
+            .lastModified(job.getFinishedAt())
+            .body(file);
     }
 }
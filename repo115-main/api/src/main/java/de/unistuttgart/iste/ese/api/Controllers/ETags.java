@@ -0,0 +1,44 @@
+package de.unistuttgart.iste.ese.api.Controllers;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Entity tags of todos and assignees: the {@code @Version} of the entity as
+ * strong ETag, e.g. {@code "3"}.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * @param ifMatch The If-Match request header, a single tag or a comma-separated list.
+     * @return The versions the client accepts, null if there is no precondition
+     * ({@code *} or no header). Weak and malformed tags never match for If-Match
+     * and are left out, so the set is empty if none of the tags is valid.
+     */
+    static Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new LinkedHashSet<>();
+        // versions are digits only, so a comma never appears inside a valid tag
+        for (String element : ifMatch.split(",")) {
+            String tag = element.trim();
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(tag.substring(1, tag.length() - 1)));
+            } catch (NumberFormatException e) {
+                // not one of our tags
+            }
+        }
+        return versions;
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+}
@@ -1,13 +1,23 @@
 package de.unistuttgart.iste.ese.api.Controllers;
 
+import de.unistuttgart.iste.ese.api.Entities.ArchivedToDo;
+import de.unistuttgart.iste.ese.api.Entities.Category;
 import de.unistuttgart.iste.ese.api.Entities.ToDo;
+import de.unistuttgart.iste.ese.api.Repositories.FieldProjection;
+import de.unistuttgart.iste.ese.api.Services.PreconditionFailedException;
+import de.unistuttgart.iste.ese.api.Services.TodoArchiveService;
 import de.unistuttgart.iste.ese.api.Services.ToDoService;
+import de.unistuttgart.iste.ese.api.Snapshot.SnapshotResponder;
 import de.unistuttgart.iste.ese.api.TodoModel;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -17,15 +27,20 @@ import java.util.Map;
 public class ToDoController {
 
     private static final Log LOG = LogFactory.getLog(ToDoController.class);
+    private static final int MAX_SEARCH_LIMIT = 100;
 
     private final ToDoService toDoService;
     private final TodoModel todoModel;
+    private final SnapshotResponder snapshotResponder;
+    private final TodoArchiveService todoArchiveService;
 
-    public ToDoController(ToDoService toDoService) {
+    public ToDoController(ToDoService toDoService, TodoModel todoModel, SnapshotResponder snapshotResponder,
+                          TodoArchiveService todoArchiveService) {
         this.toDoService = toDoService;
-        String modelPath = "model.pmml";
-        this.todoModel = new TodoModel(modelPath);
-        LOG.info("ToDoController initialized with model path: " + modelPath);
+        this.todoModel = todoModel;
+        this.snapshotResponder = snapshotResponder;
+        this.todoArchiveService = todoArchiveService;
+        LOG.info("ToDoController initialized with model path: " + todoModel.getPathname());
     }
 
     @PostMapping
@@ -59,7 +74,7 @@ public class ToDoController {
 
             ToDo createdTodo = toDoService.createTodoWithAssignees(requestData);
             LOG.info("Todo erfolgreich erstellt mit ID: " + createdTodo.getId() + " und Kategorie: " + createdTodo.getCategory());
-            return ResponseEntity.status(201).body(createdTodo);
+            return ResponseEntity.status(201).eTag(ETags.of(createdTodo.getVersion())).body(createdTodo);
         } catch (IllegalArgumentException e) {
             LOG.error("Validation error: " + e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -70,17 +85,72 @@ public class ToDoController {
     }
 
     @GetMapping
-    public List<ToDo> getAllTodos() {
+    public ResponseEntity<?> getAllTodos(@RequestParam(value = "fields", required = false) String fields,
+                                         @RequestParam(value = "includeArchived", defaultValue = "false") boolean includeArchived,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         LOG.info("Fetching all todos");
-        return toDoService.getAllToDos();
+        if (includeArchived) {
+            if (fields != null) {
+                return ResponseEntity.badRequest().body("fields kann nicht mit includeArchived kombiniert werden");
+            }
+            List<Object> todos = new ArrayList<>(toDoService.getAllToDos());
+            todos.addAll(todoArchiveService.getArchivedToDos());
+            return ResponseEntity.ok(todos);
+        }
+        if (fields == null) {
+            ResponseEntity<byte[]> snapshot = snapshotResponder.respond("todos", accept, toDoService::getAllToDos);
+            return snapshot != null ? snapshot : ResponseEntity.ok(toDoService.getAllToDos());
+        }
+        try {
+            return ResponseEntity.ok(toDoService.getAllToDoFields(FieldProjection.parse(fields)));
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid fields: " + e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchTodos(@RequestParam("q") String query,
+                                         @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        LOG.info("Searching todos for: '" + query + "'");
+        if (query.trim().isEmpty()) {
+            LOG.warn("Empty search query");
+            return ResponseEntity.badRequest().body("Suchbegriff darf nicht leer sein");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            LOG.warn("Invalid search limit: " + limit);
+            return ResponseEntity.badRequest().body("limit muss zwischen 1 und " + MAX_SEARCH_LIMIT + " liegen");
+        }
+        return ResponseEntity.ok(toDoService.searchToDos(query, limit));
+    }
+
+    @GetMapping("/archive")
+    public ResponseEntity<?> getArchivedTodos() {
+        LOG.info("Fetching archived todos");
+        return ResponseEntity.ok(todoArchiveService.getArchivedToDos());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ToDo> getTodoById(@PathVariable Long id) {
+    public ResponseEntity<?> getTodoById(@PathVariable Long id,
+                                         @RequestParam(value = "fields", required = false) String fields,
+                                         @RequestParam(value = "includeArchived", defaultValue = "false") boolean includeArchived) {
         LOG.info("Fetching todo with id: " + id);
-        ToDo todo = toDoService.getTodoById(id);
-        if (todo != null) {
+        Object todo;
+        try {
+            todo = fields == null ? toDoService.getTodoById(id)
+                : toDoService.getTodoFieldsById(id, FieldProjection.parse(fields));
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid fields: " + e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (todo instanceof ToDo entity) {
+            return ResponseEntity.ok().eTag(ETags.of(entity.getVersion())).body(entity);
+        } else if (todo != null) {
             return ResponseEntity.ok(todo);
+        }
+        ArchivedToDo archived = includeArchived && fields == null ? todoArchiveService.getArchivedToDoById(id) : null;
+        if (archived != null) {
+            return ResponseEntity.ok(archived);
         } else {
             LOG.warn("Todo not found with id: " + id);
             return ResponseEntity.notFound().build();
@@ -88,11 +158,21 @@ public class ToDoController {
     }
 
     @PutMapping("/{id}/finish")
-    public ResponseEntity<ToDo> markTodoAsFinished(@PathVariable Long id) {
+    public ResponseEntity<?> markTodoAsFinished(@PathVariable Long id,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         LOG.info("Marking todo as finished: " + id);
-        ToDo todo = toDoService.markTodoAsFinished(id);
+        ToDo todo;
+        try {
+            todo = toDoService.markTodoAsFinished(id, ETags.expectedVersions(ifMatch));
+        } catch (PreconditionFailedException e) {
+            LOG.warn("Outdated version for finishing todo " + id + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(ETags.of(e.getCurrentVersion())).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            LOG.warn("Concurrent update while finishing todo " + id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("ToDo wurde gleichzeitig geändert, bitte erneut versuchen");
+        }
         if (todo != null) {
-            return ResponseEntity.ok(todo);
+            return ResponseEntity.ok().eTag(ETags.of(todo.getVersion())).body(todo);
         } else {
             LOG.warn("Todo not found for finishing: " + id);
             return ResponseEntity.notFound().build();
@@ -100,7 +180,8 @@ public class ToDoController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateTodo(@PathVariable Long id, @RequestBody Map<String, Object> requestData) {
+    public ResponseEntity<?> updateTodo(@PathVariable Long id, @RequestBody Map<String, Object> requestData,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             LOG.info("Updating todo " + id + " with data: " + requestData);
 
@@ -127,10 +208,19 @@ public class ToDoController {
                 }
             }
 
-            ToDo updated = toDoService.updateTodoWithAssignees(id, requestData);
+            ToDo updated = toDoService.updateTodoWithAssignees(id, requestData, ETags.expectedVersions(ifMatch));
             LOG.info("Todo erfolgreich aktualisiert: ID=" + id + ", Kategorie=" + updated.getCategory());
-            return ResponseEntity.ok(updated);
+            return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
 
+        } catch (PreconditionFailedException e) {
+            LOG.warn("Outdated version for updating todo " + id + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(ETags.of(e.getCurrentVersion())).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            LOG.warn("Concurrent update of todo " + id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("ToDo wurde gleichzeitig geändert, bitte neu laden");
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Validation failed for update request: " + e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             LOG.error("Error updating todo: " + e.getMessage(), e);
             return ResponseEntity.status(500).body("Fehler beim Aktualisieren des ToDos: " + e.getMessage());
@@ -169,8 +259,10 @@ public class ToDoController {
                 predictedCategory = "GENERAL";
             }
 
+            // same labels as stored todos, e.g. "general" instead of the model's fallback "GENERAL"
+            Category category = Category.parse(predictedCategory);
             return ResponseEntity.ok(Map.of(
-                "category", predictedCategory,
+                "category", category != null ? category : Category.GENERAL,
                 "title", title
             ));
         } catch (Exception e) {
@@ -0,0 +1,91 @@
+package de.unistuttgart.iste.ese.api.Entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A todo moved out of {@code todos} by the archival job. Rows are written with
+ * plain JDBC by {@code TodoArchiver} and never changed afterwards.
+ */
+@Entity
+@Immutable
+@Table(name = "todos_archive")
+public class ArchivedToDo {
+    @Id
+    private long id;
+    private boolean finished;
+    @Convert(converter = Priority.ColumnConverter.class)
+    private Priority priority;
+    private String title;
+    @Column(length = 1000)
+    private String description;
+    @Convert(converter = Category.ColumnConverter.class)
+    private Category category;
+    private LocalDate dueDate;
+    private LocalDate finishedDate;
+    private LocalDate createdDate;
+    private long version;
+    @Column(nullable = false)
+    private LocalDate archivedDate;
+
+    @ManyToMany
+    @JoinTable(
+        name = "todo_assignee_archive",
+        joinColumns = @JoinColumn(name = "todo_id"),
+        inverseJoinColumns = @JoinColumn(name = "assignee_id")
+    )
+    private List<Assignee> assigneeList;
+
+    public ArchivedToDo() {}
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public LocalDate getFinishedDate() {
+        return finishedDate;
+    }
+
+    public LocalDate getCreatedDate() {
+        return createdDate;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDate getArchivedDate() {
+        return archivedDate;
+    }
+
+    public List<Assignee> getAssigneeList() {
+        return assigneeList;
+    }
+}
@@ -1,18 +1,41 @@
 package de.unistuttgart.iste.ese.api.Entities;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 
+import java.util.Locale;
+
 @Entity
-@Table(name = "assignees")
+@Table(name = "assignees", uniqueConstraints = @UniqueConstraint(
+    name = Assignee.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email_normalized"))
 public class Assignee {
+    // unique index on the normalized email, see V6__unique_assignee_email
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_assignees_email_normalized";
+
+    // ids are taken from assignees_seq in blocks, like the todo ids
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "assignees_seq")
+    @SequenceGenerator(name = "assignees_seq", sequenceName = "assignees_seq", allocationSize = 50)
     private long id;
 
+    // column sizes as in the migrations (db/migration), so tests run on the same limits
+    @Column(length = 100)
     private String name;
+    @Column(length = 100)
     private String prename;
+    @Column(length = 254)
     private String email;
+    // trimmed and lowercased email, kept in sync by setEmail
+    @JsonIgnore
+    @Column(length = 254)
+    private String emailNormalized;
+
+    // optimistic locking, sent to clients as ETag and checked against If-Match
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
 
     public Assignee() {
     }
@@ -47,6 +70,21 @@ public class Assignee {
 
     public void setEmail(String email) {
         this.email = email;
+        this.emailNormalized = normalizeEmail(email);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
     }
 
+    /**
+     * @return The email as compared for uniqueness: trimmed and lowercased.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
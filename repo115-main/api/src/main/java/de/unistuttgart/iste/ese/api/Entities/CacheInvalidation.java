@@ -0,0 +1,54 @@
+package de.unistuttgart.iste.ese.api.Entities;
+
+import jakarta.persistence.*;
+
+/**
+ * Table of the database-backed cache invalidation bus. Rows are written and
+ * polled with plain JDBC by {@code JdbcInvalidationBus}; the entity only
+ * defines the schema.
+ */
+@Entity
+@Table(name = "cache_invalidations",
+    indexes = @Index(name = "idx_cache_invalidations_created_at", columnList = "created_at"))
+public class CacheInvalidation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(nullable = false, length = 32)
+    private String topic;
+
+    @Column(name = "entity_key", nullable = false)
+    private long entityKey;
+
+    // the node that made the change
+    @Column(nullable = false, length = 36)
+    private String origin;
+
+    // epoch millis
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+
+    public CacheInvalidation() {
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public long getEntityKey() {
+        return entityKey;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+}
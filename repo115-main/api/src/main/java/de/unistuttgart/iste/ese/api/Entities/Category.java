@@ -0,0 +1,85 @@
+package de.unistuttgart.iste.ese.api.Entities;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import jakarta.persistence.AttributeConverter;
+
+import java.util.Locale;
+
+/**
+ * Category of a todo, set by the client or predicted by the classification model.
+ * Sent to clients as its lowercase label, the form {@code TodoModel} predicts, and
+ * stored as a TINYINT code. {@link #PRIVATE} and {@link #WORK} have the class
+ * indexes of the model as codes.
+ */
+public enum Category {
+    PRIVATE(0),
+    WORK(1),
+    GENERAL(2);
+
+    private static final Category[] BY_CODE = values();
+
+    private final byte code;
+    private final String label;
+
+    Category(int code) {
+        this.code = (byte) code;
+        this.label = name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return The value stored in the database.
+     */
+    public byte code() {
+        return code;
+    }
+
+    /**
+     * @return The lowercase name sent to clients, e.g. "work".
+     */
+    @JsonValue
+    public String label() {
+        return label;
+    }
+
+    /**
+     * Parses a category from a request or a model prediction, ignoring case.
+     *
+     * @return The category, or null if the value is not a category.
+     */
+    @JsonCreator
+    public static Category parse(String value) {
+        for (Category category : BY_CODE) {
+            if (category.label.equalsIgnoreCase(value)) {
+                return category;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the code is not a category.
+     */
+    public static Category fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown category code " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Maps the category to its TINYINT column, see {@code V5__compact_priority_and_category}.
+     */
+    public static class ColumnConverter implements AttributeConverter<Category, Byte> {
+
+        @Override
+        public Byte convertToDatabaseColumn(Category category) {
+            return category == null ? null : category.code;
+        }
+
+        @Override
+        public Category convertToEntityAttribute(Byte code) {
+            return code == null ? null : fromCode(code);
+        }
+    }
+}
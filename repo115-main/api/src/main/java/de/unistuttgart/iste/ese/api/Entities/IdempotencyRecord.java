@@ -0,0 +1,63 @@
+package de.unistuttgart.iste.ese.api.Entities;
+
+import jakarta.persistence.*;
+
+/**
+ * Table of the database-backed idempotency store, shared by all API nodes. Rows
+ * are written with plain JDBC by {@code JdbcIdempotencyStore}; the entity only
+ * defines the schema.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // null while the first attempt is in flight
+    private Integer status;
+    private String contentType;
+    @Column(length = 64)
+    private String etag;
+
+    @Lob
+    private byte[] body;
+
+    // epoch millis; for rows in flight the end of the claim, so claims of crashed nodes run out
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    public IdempotencyRecord() {
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
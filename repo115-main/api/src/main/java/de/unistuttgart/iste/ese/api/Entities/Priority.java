@@ -0,0 +1,70 @@
+package de.unistuttgart.iste.ese.api.Entities;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * Priority of a todo, sent to clients by name. Stored as a TINYINT code in
+ * order of urgency, so sorting by the column sorts by priority.
+ */
+public enum Priority {
+    LOW(0),
+    MEDIUM(1),
+    HIGH(2);
+
+    private static final Priority[] BY_CODE = values();
+
+    private final byte code;
+
+    Priority(int code) {
+        this.code = (byte) code;
+    }
+
+    /**
+     * @return The value stored in the database.
+     */
+    public byte code() {
+        return code;
+    }
+
+    /**
+     * Parses a priority from a request, ignoring case.
+     *
+     * @return The priority, or null if the value is not a priority.
+     */
+    @JsonCreator
+    public static Priority parse(String value) {
+        for (Priority priority : BY_CODE) {
+            if (priority.name().equalsIgnoreCase(value)) {
+                return priority;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the code is not a priority.
+     */
+    public static Priority fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown priority code " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Maps the priority to its TINYINT column, see {@code V5__compact_priority_and_category}.
+     */
+    public static class ColumnConverter implements AttributeConverter<Priority, Byte> {
+
+        @Override
+        public Byte convertToDatabaseColumn(Priority priority) {
+            return priority == null ? null : priority.code;
+        }
+
+        @Override
+        public Priority convertToEntityAttribute(Byte code) {
+            return code == null ? null : fromCode(code);
+        }
+    }
+}
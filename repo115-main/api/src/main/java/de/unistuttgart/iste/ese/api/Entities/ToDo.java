@@ -10,18 +10,30 @@ import java.util.List;
 @Entity
 @Table(name = "todos")
 public class ToDo {
+    // ids are taken from todos_seq in blocks (pooled optimizer), so inserts can be batched;
+    // the block size follows the sequence increment, see V4__id_sequences
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+    @SequenceGenerator(name = "todos_seq", sequenceName = "todos_seq", allocationSize = 50)
     private long id;
     private boolean finished;
-    private String priority;
+    // TINYINT codes, see the enums
+    @Convert(converter = Priority.ColumnConverter.class)
+    private Priority priority;
     private String title;
+    // column sizes as in the migrations (db/migration), so tests run on the same limits
+    @Column(length = 1000)
     private String description;
-    private String category;
+    @Convert(converter = Category.ColumnConverter.class)
+    private Category category;
     private LocalDate dueDate;
     private LocalDate finishedDate;
     private LocalDate createdDate;
 
+    // optimistic locking, sent to clients as ETag and checked against If-Match
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
 
     @ManyToMany(cascade = {CascadeType.MERGE})
     @JoinTable(
@@ -50,11 +62,11 @@ public class ToDo {
         this.finished = finished;
     }
 
-    public String getPriority() {
+    public Priority getPriority() {
         return priority;
     }
 
-    public void setPriority(String priority) {
+    public void setPriority(Priority priority) {
         this.priority = priority;
     }
 
@@ -83,11 +95,11 @@ public class ToDo {
         this.description = description;
     }
 
-    public void setCategory(String category) {
+    public void setCategory(Category category) {
         this.category = category;
     }
 
-    public String getCategory() {
+    public Category getCategory() {
         return category;
     }
 
@@ -115,5 +127,13 @@ public class ToDo {
         this.createdDate = createdDate;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
 
 }
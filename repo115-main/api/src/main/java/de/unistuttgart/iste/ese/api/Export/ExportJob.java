@@ -0,0 +1,110 @@
+package de.unistuttgart.iste.ese.api.Export;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An asynchronous CSV export of all todos, as reported to clients polling
+ * {@code GET /api/v1/csv-downloads/jobs/{id}}. Written by the export thread,
+ * read by request threads.
+ */
+public class ExportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    private final String id;
+    private final Instant createdAt;
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private volatile Status status = Status.QUEUED;
+    private volatile long totalRows = -1;
+    private volatile Instant finishedAt;
+    private volatile Path file;
+    private volatile long size = -1;
+    private volatile String error;
+
+    ExportJob(String id, Instant createdAt) {
+        this.id = id;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    /**
+     * @return The number of todos when the export started, or -1 before that.
+     */
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    /**
+     * @return The share of rows written, between 0 and 1; exactly 1 once the file is complete.
+     */
+    public double getProgress() {
+        if (status == Status.DONE) {
+            return 1.0;
+        }
+        long total = totalRows;
+        return total <= 0 ? 0.0 : Math.min(0.99, (double) rowsWritten.get() / total);
+    }
+
+    /**
+     * @return The size of the finished file in bytes, or -1 while it is written.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @JsonIgnore
+    public Path getFile() {
+        return file;
+    }
+
+    void started(long totalRows) {
+        this.totalRows = totalRows;
+        this.status = Status.RUNNING;
+    }
+
+    void rowWritten() {
+        rowsWritten.incrementAndGet();
+    }
+
+    void finished(Path file, long size) {
+        this.file = file;
+        this.size = size;
+        this.finishedAt = Instant.now();
+        this.status = Status.DONE;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+}
@@ -0,0 +1,199 @@
+package de.unistuttgart.iste.ese.api.Export;
+
+import de.unistuttgart.iste.ese.api.Services.ToDoService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs CSV exports of all todos in the background, so a large export does not
+ * keep an HTTP request open for its whole duration.
+ * <p>
+ * At most {@code todo.export.threads} exports run at once and
+ * {@code todo.export.queue-capacity} wait; further jobs are rejected. Each job
+ * writes to {@code <id>.csv.part} in {@code todo.export.directory} and renames the
+ * file once it is complete. Finished jobs and their files are removed
+ * {@code todo.export.ttl} after they finished. Jobs are kept in memory, so they
+ * are only known to the node that runs them and do not survive a restart.
+ */
+@Service
+public class ExportJobService {
+
+    private static final Log LOG = LogFactory.getLog(ExportJobService.class);
+    private static final Duration MAX_CLEANUP_INTERVAL = Duration.ofMinutes(1);
+
+    private final ToDoService toDoService;
+    private final Path directory;
+    private final Duration ttl;
+    private final ConcurrentHashMap<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService cleanup = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "todo-export-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ExportJobService(ToDoService toDoService,
+                            @Value("${todo.export.directory:${java.io.tmpdir}/todo-exports}") Path directory,
+                            @Value("${todo.export.threads:2}") int threads,
+                            @Value("${todo.export.queue-capacity:10}") int queueCapacity,
+                            @Value("${todo.export.ttl:1h}") Duration ttl) {
+        this.toDoService = toDoService;
+        this.directory = directory;
+        this.ttl = ttl;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "todo-export-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        Files.createDirectories(directory);
+        // files of jobs from before a restart can no longer be downloaded
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.{csv,part}")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        long interval = Math.max(1, Math.min(ttl.toMillis(), MAX_CLEANUP_INTERVAL.toMillis()));
+        cleanup.scheduleWithFixedDelay(() -> {
+            try {
+                removeExpiredJobs(Instant.now());
+            } catch (RuntimeException e) {
+                LOG.error("Removing expired export jobs failed:", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        cleanup.shutdownNow();
+        executor.shutdownNow();
+        // the jobs are gone with this instance, so are their files
+        for (ExportJob job : jobs.values()) {
+            if (job.getFile() != null) {
+                deleteQuietly(job.getFile());
+            }
+        }
+    }
+
+    /**
+     * Queues an export of all todos.
+     *
+     * @return The queued job.
+     * @throws RejectedExecutionException If the queue is full.
+     */
+    public ExportJob startExport() {
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), Instant.now());
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * @return The job, or null if there is no such job or it has expired.
+     */
+    public ExportJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * @return All jobs that have not expired yet.
+     */
+    public Collection<ExportJob> getJobs() {
+        return jobs.values();
+    }
+
+    /**
+     * Removes jobs finished more than {@code todo.export.ttl} before {@code now},
+     * together with their files. Downloads already in progress keep reading the
+     * deleted file.
+     *
+     * @return The number of removed jobs.
+     */
+    public int removeExpiredJobs(Instant now) {
+        Instant cutoff = now.minus(ttl);
+        int removed = 0;
+        for (ExportJob job : jobs.values()) {
+            Instant finishedAt = job.getFinishedAt();
+            if (finishedAt != null && finishedAt.isBefore(cutoff) && jobs.remove(job.getId(), job)) {
+                if (job.getFile() != null) {
+                    deleteQuietly(job.getFile());
+                }
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void run(ExportJob job) {
+        long start = System.nanoTime();
+        Path part = directory.resolve(job.getId() + ".csv.part");
+        try {
+            job.started(toDoService.countToDos());
+            try (TodoCsvWriter csv = new TodoCsvWriter(Files.newBufferedWriter(part, StandardCharsets.UTF_8))) {
+                toDoService.exportToDos(todo -> {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException("Export abgebrochen");
+                    }
+                    try {
+                        csv.write(todo);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    job.rowWritten();
+                });
+            }
+            Path file = directory.resolve(job.getId() + ".csv");
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+            job.finished(file, Files.size(file));
+            LOG.info("Export " + job.getId() + " wrote " + job.getRowsWritten() + " todos (" + job.getSize()
+                + " bytes) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Export " + job.getId() + " failed:", e);
+            deleteQuietly(part);
+            job.failed("Export fehlgeschlagen: " + e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("Could not delete export file " + file + ": " + e.getMessage());
+        }
+    }
+}
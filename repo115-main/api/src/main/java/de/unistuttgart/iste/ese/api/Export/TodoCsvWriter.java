@@ -0,0 +1,73 @@
+package de.unistuttgart.iste.ese.api.Export;
+
+import de.unistuttgart.iste.ese.api.Profiling.CsvExportBatchEvent;
+import de.unistuttgart.iste.ese.api.Repositories.TodoRow;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The CSV format of the todo export, shared by the direct download and the
+ * export jobs. Closing the writer closes the underlying output.
+ * <p>
+ * Every {@value #BATCH_ROWS} rows are recorded as one {@link CsvExportBatchEvent}.
+ */
+public class TodoCsvWriter implements Closeable {
+
+    private static final CSVFormat FORMAT = CSVFormat.RFC4180.builder()
+            .setHeader("id", "title", "description", "finished", "assignees", "createdDate", "dueDate",
+                    "finishedDate", "category", "priority")
+            .build();
+
+    static final int BATCH_ROWS = 1000;
+
+    private final CSVPrinter printer;
+    private CsvExportBatchEvent batch;
+    private int batchRows;
+
+    public TodoCsvWriter(Appendable out) throws IOException {
+        this.printer = new CSVPrinter(out, FORMAT);
+    }
+
+    public void write(TodoRow todo) throws IOException {
+        if (batchRows == 0) {
+            batch = new CsvExportBatchEvent();
+            batch.begin();
+            batch.firstTodoId = todo.id();
+        }
+        printer.printRecord(
+                todo.id(),
+                todo.title(),
+                todo.description(),
+                String.valueOf(todo.finished()), // "true"/"false"
+                String.join("+", todo.assigneeNames()),
+                todo.createdDate(),
+                todo.dueDate(),
+                todo.finishedDate() != null ? todo.finishedDate() : "",
+                todo.category() != null ? todo.category().label() : "",
+                todo.priority() != null ? todo.priority().name() : "");
+        if (++batchRows == BATCH_ROWS) {
+            commitBatch();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        printer.close(true);
+        if (batchRows > 0) {
+            commitBatch();
+        }
+    }
+
+    private void commitBatch() {
+        batch.end();
+        if (batch.shouldCommit()) {
+            batch.rows = batchRows;
+            batch.commit();
+        }
+        batch = null;
+        batchRows = 0;
+    }
+}
@@ -0,0 +1,45 @@
+package de.unistuttgart.iste.ese.api.Idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Idempotency keys for POST requests, see {@link IdempotencyFilter}. With
+ * {@code todo.idempotency.store=memory} (default) keys are kept per node; with
+ * {@code jdbc} they are shared by all nodes through the {@code idempotency_keys} table.
+ */
+@Configuration
+public class IdempotencyConfiguration {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(
+        DataSource dataSource,
+        @Value("${todo.idempotency.store:memory}") String type,
+        @Value("${todo.idempotency.ttl:24h}") Duration ttl,
+        @Value("${todo.idempotency.max-entries:10000}") int maxEntries,
+        @Value("${todo.idempotency.claim-timeout:1m}") Duration claimTimeout) {
+        return switch (type) {
+            case "memory" -> new InMemoryIdempotencyStore(ttl, maxEntries, Clock.systemUTC());
+            case "jdbc" -> new JdbcIdempotencyStore(dataSource, ttl, claimTimeout, Clock.systemUTC());
+            default -> throw new IllegalArgumentException("Unknown todo.idempotency.store: " + type);
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+        IdempotencyStore idempotencyStore,
+        @Value("${todo.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+            new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyStore, waitTimeout));
+        // after the read-your-writes filter, so a replayed write still pins the client to the primary
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,53 @@
+package de.unistuttgart.iste.ese.api.Idempotency;
+
+import java.time.Duration;
+
+/**
+ * Remembers the responses of requests sent with an {@code Idempotency-Key}.
+ * <p>
+ * A key is first claimed by the attempt that executes the request; concurrent
+ * attempts with the same key wait for it and then replay its response. After
+ * {@link #complete} the response is kept for the configured time to live.
+ */
+public interface IdempotencyStore {
+
+    enum Status {
+        /** The caller holds the key and must {@link #complete} or {@link #release} it. */
+        ACQUIRED,
+        /** The request was already executed, see {@link Outcome#response()}. */
+        COMPLETED,
+        /** The key was used for a different request. */
+        MISMATCH,
+        /** Another attempt is still running after the wait timeout. */
+        IN_PROGRESS
+    }
+
+    record Outcome(Status status, StoredResponse response) {
+
+        static final Outcome ACQUIRED = new Outcome(Status.ACQUIRED, null);
+        static final Outcome MISMATCH = new Outcome(Status.MISMATCH, null);
+        static final Outcome IN_PROGRESS = new Outcome(Status.IN_PROGRESS, null);
+
+        static Outcome completed(StoredResponse response) {
+            return new Outcome(Status.COMPLETED, response);
+        }
+    }
+
+    /**
+     * Claims a key, waiting up to {@code wait} if another attempt holds it.
+     *
+     * @param fingerprint Identifies the request, so a key reused for another request is detected.
+     */
+    Outcome claim(String key, String fingerprint, Duration wait) throws InterruptedException;
+
+    /**
+     * Stores the response of the attempt holding the key.
+     */
+    void complete(String key, StoredResponse response);
+
+    /**
+     * Gives up a claimed key without a response, e.g. after a server error, so
+     * the next retry executes the request again.
+     */
+    void release(String key);
+}
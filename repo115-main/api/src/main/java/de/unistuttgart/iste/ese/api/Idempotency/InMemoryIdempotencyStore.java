@@ -0,0 +1,122 @@
+package de.unistuttgart.iste.ese.api.Idempotency;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-node store. Entries are kept in insertion order, so expired entries are
+ * always at the head; if the store is full, the oldest completed entries are
+ * evicted before their time to live. Keys in flight are never evicted.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private static final class Entry {
+        final String fingerprint;
+        // completed with the response, or with null if the attempt was released
+        final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+        long expiresAt = Long.MAX_VALUE;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    public InMemoryIdempotencyStore(Duration ttl, int maxEntries, Clock clock) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public Outcome claim(String key, String fingerprint, Duration wait) throws InterruptedException {
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            Entry entry;
+            synchronized (this) {
+                evict();
+                entry = entries.get(key);
+                if (entry == null) {
+                    entries.put(key, new Entry(fingerprint));
+                    return Outcome.ACQUIRED;
+                }
+            }
+            if (!entry.fingerprint.equals(fingerprint)) {
+                return Outcome.MISMATCH;
+            }
+            try {
+                StoredResponse response = entry.result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (response != null) {
+                    return Outcome.completed(response);
+                }
+                // released: try to claim the key for this attempt
+            } catch (TimeoutException e) {
+                return Outcome.IN_PROGRESS;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                return;
+            }
+            // re-insert, so the entry moves to the tail with its new expiry
+            entries.remove(key);
+            entry.expiresAt = clock.millis() + ttl.toMillis();
+            entries.put(key, entry);
+        }
+        entry.result.complete(response);
+    }
+
+    @Override
+    public void release(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.remove(key);
+        }
+        if (entry != null) {
+            entry.result.complete(null);
+        }
+    }
+
+    /**
+     * @return The number of stored keys, including those in flight.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        long now = clock.millis();
+        int excess = entries.size() - maxEntries + 1;
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (!entry.result.isDone()) {
+                continue;
+            }
+            if (entry.expiresAt <= now || excess > 0) {
+                it.remove();
+                excess--;
+            } else {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package de.unistuttgart.iste.ese.api.Idempotency;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Multi-node store on the {@code idempotency_keys} table. A key is claimed by
+ * inserting its row, so the primary key decides which node executes a request;
+ * the others poll the row until the response is stored. Every statement runs
+ * in its own auto-commit transaction, independent of the request.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final long POLL_MILLIS = 50;
+    private static final long PURGE_INTERVAL_MILLIS = 60_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final Clock clock;
+    private volatile long nextPurge;
+
+    private record Row(String fingerprint, Integer status, String contentType, String eTag, byte[] body,
+                       long expiresAt) {
+    }
+
+    /**
+     * @param claimTimeout How long a claim is valid without a response, after that
+     *                     another node may execute the request.
+     */
+    public JdbcIdempotencyStore(DataSource dataSource, Duration ttl, Duration claimTimeout, Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+        this.clock = clock;
+    }
+
+    @Override
+    public Outcome claim(String key, String fingerprint, Duration wait) throws InterruptedException {
+        purgeExpired();
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            try {
+                jdbcTemplate.update("insert into idempotency_keys (idempotency_key, fingerprint, expires_at) values (?, ?, ?)",
+                    key, fingerprint, clock.millis() + claimTimeout.toMillis());
+                return Outcome.ACQUIRED;
+            } catch (DuplicateKeyException e) {
+                // claimed before, look at the existing row
+            }
+            Row row = find(key);
+            if (row == null) {
+                continue;
+            }
+            if (row.expiresAt() <= clock.millis()) {
+                jdbcTemplate.update("delete from idempotency_keys where idempotency_key = ? and expires_at = ?",
+                    key, row.expiresAt());
+                continue;
+            }
+            if (!row.fingerprint().equals(fingerprint)) {
+                return Outcome.MISMATCH;
+            }
+            if (row.status() != null) {
+                return Outcome.completed(new StoredResponse(row.status(), row.contentType(), row.eTag(), row.body()));
+            }
+            if (System.nanoTime() >= deadline) {
+                return Outcome.IN_PROGRESS;
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        jdbcTemplate.update("update idempotency_keys set status = ?, content_type = ?, etag = ?, body = ?, expires_at = ? "
+                + "where idempotency_key = ?",
+            response.status(), response.contentType(), response.eTag(), response.body(),
+            clock.millis() + ttl.toMillis(), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("delete from idempotency_keys where idempotency_key = ? and status is null", key);
+    }
+
+    private Row find(String key) {
+        List<Row> rows = jdbcTemplate.query(
+            "select fingerprint, status, content_type, etag, body, expires_at from idempotency_keys where idempotency_key = ?",
+            (rs, rowNum) -> new Row(rs.getString(1), (Integer) rs.getObject(2), rs.getString(3), rs.getString(4),
+                rs.getBytes(5), rs.getLong(6)),
+            key);
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    // at most once a minute per node, so claims don't pay for it
+    private void purgeExpired() {
+        long now = clock.millis();
+        if (now >= nextPurge) {
+            nextPurge = now + PURGE_INTERVAL_MILLIS;
+            jdbcTemplate.update("delete from idempotency_keys where expires_at <= ?", now);
+        }
+    }
+}
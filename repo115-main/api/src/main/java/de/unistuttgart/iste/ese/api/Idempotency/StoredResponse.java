@@ -0,0 +1,7 @@
+package de.unistuttgart.iste.ese.api.Idempotency;
+
+/**
+ * The parts of a completed response that are replayed for a retried request.
+ */
+public record StoredResponse(int status, String contentType, String eTag, byte[] body) {
+}
@@ -0,0 +1,37 @@
+package de.unistuttgart.iste.ese.api.Invalidation;
+
+/**
+ * Tells the in-process caches of every API node that data changed.
+ * <p>
+ * Writers {@link #publish} the changed entities; subscribers on the same node
+ * are notified once the surrounding transaction commits, subscribers on other
+ * nodes shortly after (depending on the implementation). Notifications carry
+ * no data, caches drop or reload the affected entries themselves, so receiving
+ * one twice is harmless.
+ */
+public interface InvalidationBus {
+
+    String TODOS = "todos";
+    String ASSIGNEES = "assignees";
+
+    @FunctionalInterface
+    interface Listener {
+        /**
+         * @param key    The id of the changed entity.
+         * @param remote Whether the change was made on another node; local changes
+         *               are often already applied to the cache by the writer.
+         */
+        void onInvalidation(long key, boolean remote);
+    }
+
+    /**
+     * Announces a change of an entity. Inside a transaction the notification is
+     * only sent if the transaction commits.
+     *
+     * @param topic The kind of entity, e.g. {@link #TODOS}.
+     * @param key   The id of the entity.
+     */
+    void publish(String topic, long key);
+
+    void subscribe(String topic, Listener listener);
+}
@@ -0,0 +1,36 @@
+package de.unistuttgart.iste.ese.api.Invalidation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Cache invalidation between API nodes, see {@link InvalidationBus}. With
+ * {@code todo.invalidation.bus=local} (default) only the caches of this node are
+ * notified; with {@code jdbc} all nodes are, through the {@code cache_invalidations}
+ * table, polled every {@code todo.invalidation.poll-interval}.
+ */
+@Configuration
+public class InvalidationConfiguration {
+
+    @Bean
+    public InvalidationBus invalidationBus(
+        DataSource dataSource,
+        @Value("${todo.invalidation.bus:local}") String type,
+        @Value("${todo.invalidation.poll-interval:1s}") Duration pollInterval,
+        @Value("${todo.invalidation.retention:10m}") Duration retention) {
+        return switch (type) {
+            case "local" -> new LocalInvalidationBus();
+            case "jdbc" -> {
+                JdbcInvalidationBus bus = new JdbcInvalidationBus(dataSource, retention, Clock.systemUTC());
+                bus.start(pollInterval);
+                yield bus;
+            }
+            default -> throw new IllegalArgumentException("Unknown todo.invalidation.bus: " + type);
+        };
+    }
+}
@@ -0,0 +1,161 @@
+package de.unistuttgart.iste.ese.api.Invalidation;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-node bus on the {@code cache_invalidations} change log, without any
+ * extra infrastructure. Changes are inserted in the publishing transaction, so
+ * they become visible exactly when the data does; every node polls the rows
+ * above its high-water mark and delivers the ones of other nodes.
+ * <p>
+ * Ids are assigned on insert but become visible on commit, so a poll may see
+ * id 11 before a slower transaction commits id 10. Skipped ids are therefore
+ * remembered as gaps and re-checked for {@value #GAP_TIMEOUT_MILLIS} ms.
+ */
+public class JdbcInvalidationBus extends LocalInvalidationBus implements AutoCloseable {
+
+    private static final Log LOG = LogFactory.getLog(JdbcInvalidationBus.class);
+
+    private static final long GAP_TIMEOUT_MILLIS = 60_000;
+    private static final int MAX_GAPS = 10_000;
+    private static final int BATCH_SIZE = 1000;
+    private static final long PURGE_INTERVAL_MILLIS = 60_000;
+
+    private static final String SELECT_NEW =
+        "select id, topic, entity_key, origin from cache_invalidations where id > ? order by id limit " + BATCH_SIZE;
+    private static final String SELECT_GAPS =
+        "select id, topic, entity_key, origin from cache_invalidations where id in (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final Duration retention;
+    private final Clock clock;
+    // identifies this node's rows, so they are not delivered twice
+    private final String origin = UUID.randomUUID().toString();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-poll");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // only accessed by the poll thread
+    private long highWaterMark = -1;
+    private final Map<Long, Long> gapsSince = new HashMap<>();
+    private long nextPurge;
+
+    private record Row(long id, Invalidation invalidation, String origin) {
+    }
+
+    /**
+     * @param retention How long rows are kept; a node that cannot poll for longer misses changes.
+     */
+    public JdbcInvalidationBus(DataSource dataSource, Duration retention, Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts polling for changes of other nodes.
+     */
+    public void start(Duration pollInterval) {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (DataAccessException e) {
+                LOG.warn("Polling cache invalidations failed: " + e.getMessage());
+            }
+        }, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    protected void store(Collection<Invalidation> invalidations) {
+        long now = clock.millis();
+        jdbcTemplate.batchUpdate("insert into cache_invalidations (topic, entity_key, origin, created_at) values (?, ?, ?, ?)",
+            invalidations.stream()
+                .map(invalidation -> new Object[] {invalidation.topic(), invalidation.key(), origin, now})
+                .toList());
+    }
+
+    /**
+     * Delivers the changes of other nodes committed since the last poll.
+     */
+    synchronized void poll() {
+        if (highWaterMark < 0) {
+            // older changes are already reflected in what this node loads from now on
+            Long max = jdbcTemplate.queryForObject("select max(id) from cache_invalidations", Long.class);
+            highWaterMark = max == null ? 0 : max;
+            return;
+        }
+        long now = clock.millis();
+        List<Row> rows = new ArrayList<>();
+        if (!gapsSince.isEmpty()) {
+            gapsSince.values().removeIf(since -> now - since > GAP_TIMEOUT_MILLIS);
+            if (!gapsSince.isEmpty()) {
+                rows.addAll(namedJdbcTemplate.query(SELECT_GAPS,
+                    new MapSqlParameterSource("ids", gapsSince.keySet()), (rs, i) -> toRow(rs)));
+                rows.forEach(row -> gapsSince.remove(row.id()));
+            }
+        }
+        List<Row> newRows;
+        do {
+            newRows = jdbcTemplate.query(SELECT_NEW, (rs, i) -> toRow(rs), highWaterMark);
+            for (Row row : newRows) {
+                for (long id = highWaterMark + 1; id < row.id() && gapsSince.size() < MAX_GAPS; id++) {
+                    gapsSince.put(id, now);
+                }
+                highWaterMark = row.id();
+            }
+            rows.addAll(newRows);
+        } while (newRows.size() == BATCH_SIZE);
+
+        List<Invalidation> remote = rows.stream()
+            .filter(row -> !origin.equals(row.origin()))
+            .map(Row::invalidation)
+            .distinct()
+            .toList();
+        if (!remote.isEmpty()) {
+            deliver(remote, true);
+        }
+        purgeExpired(now);
+    }
+
+    private static Row toRow(ResultSet rs) throws SQLException {
+        return new Row(rs.getLong("id"), new Invalidation(rs.getString("topic"), rs.getLong("entity_key")),
+            rs.getString("origin"));
+    }
+
+    private void purgeExpired(long now) {
+        if (now < nextPurge) {
+            return;
+        }
+        nextPurge = now + PURGE_INTERVAL_MILLIS;
+        jdbcTemplate.update("delete from cache_invalidations where created_at < ?", now - retention.toMillis());
+    }
+}
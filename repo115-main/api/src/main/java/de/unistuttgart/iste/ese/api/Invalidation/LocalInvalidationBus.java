@@ -0,0 +1,91 @@
+package de.unistuttgart.iste.ese.api.Invalidation;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Bus for a single node: notifications are delivered to the subscribers of this
+ * node after commit. Changes published several times in one transaction are
+ * delivered once.
+ */
+public class LocalInvalidationBus implements InvalidationBus {
+
+    private static final Log LOG = LogFactory.getLog(LocalInvalidationBus.class);
+
+    /**
+     * A published change.
+     */
+    protected record Invalidation(String topic, long key) {
+    }
+
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String topic, long key) {
+        Invalidation invalidation = new Invalidation(topic, key);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            store(List.of(invalidation));
+            deliver(List.of(invalidation), false);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Invalidation> pending = (Set<Invalidation>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Invalidation> changes = new LinkedHashSet<>();
+            pending = changes;
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    store(changes);
+                }
+
+                @Override
+                public void afterCommit() {
+                    deliver(changes, false);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LocalInvalidationBus.this);
+                }
+            });
+        }
+        pending.add(invalidation);
+    }
+
+    @Override
+    public void subscribe(String topic, Listener listener) {
+        listeners.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Called before the publishing transaction commits, with its connection still
+     * bound, so the changes can be persisted atomically with the data.
+     */
+    protected void store(Collection<Invalidation> invalidations) {
+    }
+
+    protected void deliver(Collection<Invalidation> invalidations, boolean remote) {
+        for (Invalidation invalidation : invalidations) {
+            for (Listener listener : listeners.getOrDefault(invalidation.topic(), List.of())) {
+                try {
+                    listener.onInvalidation(invalidation.key(), remote);
+                } catch (RuntimeException e) {
+                    // a broken cache must not fail the write or stop the other caches
+                    LOG.error("Cache invalidation of " + invalidation + " failed", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package de.unistuttgart.iste.ese.api;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.dmg.pmml.Apply;
+import org.dmg.pmml.Constant;
+import org.dmg.pmml.DerivedField;
+import org.dmg.pmml.Expression;
+import org.dmg.pmml.FieldRef;
+import org.dmg.pmml.MiningFunction;
+import org.dmg.pmml.Model;
+import org.dmg.pmml.PMML;
+import org.dmg.pmml.TextIndex;
+import org.dmg.pmml.TransformationDictionary;
+import org.dmg.pmml.regression.NumericPredictor;
+import org.dmg.pmml.regression.RegressionModel;
+import org.dmg.pmml.regression.RegressionTable;
+import org.jpmml.model.PMMLUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Build-time converter from {@code model.pmml} to the binary format read by
+ * {@link CompiledTodoModel}. It runs in the {@code process-classes} phase, see
+ * {@code pom.xml}.
+ * <p>
+ * Only the model shape exported for the todo classifier is supported: one text
+ * input, lowercased and split into TF-IDF features with default {@code TextIndex}
+ * settings, feeding a binary logit {@code RegressionModel}. For anything else no
+ * binary model is written and {@link TodoModel} keeps loading the PMML file.
+ * Before writing, the compiled model is checked against the PMML evaluator on
+ * the warm-up corpus.
+ */
+public final class ModelCompiler {
+
+    private static final Log LOG = LogFactory.getLog(ModelCompiler.class);
+
+    private ModelCompiler() {
+    }
+
+    /**
+     * @param args The PMML input file and the binary output file.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ModelCompiler <model.pmml> <model.bin>");
+        }
+        Path source = Path.of(args[0]);
+        Path target = Path.of(args[1]);
+        byte[] pmmlBytes = Files.readAllBytes(source);
+
+        CompiledTodoModel compiled;
+        try {
+            compiled = compile(pmmlBytes);
+        } catch (UnsupportedOperationException e) {
+            LOG.warn(source + " cannot be compiled, the PMML model will be used at runtime: " + e.getMessage());
+            Files.deleteIfExists(target);
+            return;
+        }
+        verify(compiled, pmmlBytes);
+
+        try (OutputStream out = Files.newOutputStream(target)) {
+            compiled.write(out);
+        }
+        LOG.info("Compiled " + source + " (" + compiled.getTermCount() + " terms) to " + target
+            + " (" + Files.size(target) + " bytes)");
+    }
+
+    /**
+     * Converts a PMML document to a compiled model.
+     *
+     * @throws UnsupportedOperationException If the model shape is not supported.
+     */
+    static CompiledTodoModel compile(byte[] pmmlBytes) throws Exception {
+        PMML pmml = PMMLUtil.unmarshal(new ByteArrayInputStream(pmmlBytes));
+
+        List<Model> models = pmml.getModels();
+        if (models.size() != 1 || !(models.get(0) instanceof RegressionModel model)) {
+            throw new UnsupportedOperationException("expected exactly one RegressionModel");
+        }
+        if (model.getMiningFunction() != MiningFunction.CLASSIFICATION
+            || model.getNormalizationMethod() != RegressionModel.NormalizationMethod.LOGIT
+            || model.getLocalTransformations() != null) {
+            throw new UnsupportedOperationException("expected a classification model with logit normalization");
+        }
+
+        List<RegressionTable> tables = model.getRegressionTables();
+        if (tables.size() != 2 || tables.get(1).hasNumericPredictors()
+            || tables.get(1).getIntercept().doubleValue() != 0.0) {
+            throw new UnsupportedOperationException("expected a binary model with an empty reference table");
+        }
+        RegressionTable table = tables.get(0);
+        if (table.hasCategoricalPredictors() || table.hasPredictorTerms()) {
+            throw new UnsupportedOperationException("only numeric predictors are supported");
+        }
+
+        Map<String, DerivedField> derivedFields = new HashMap<>();
+        TransformationDictionary dictionary = pmml.getTransformationDictionary();
+        if (dictionary != null) {
+            for (DerivedField field : dictionary.getDerivedFields()) {
+                derivedFields.put(field.getName(), field);
+            }
+        }
+
+        // sorted vocabulary, so the binary file is reproducible
+        Map<String, double[]> features = new TreeMap<>();
+        for (NumericPredictor predictor : table.getNumericPredictors()) {
+            if (predictor.getExponent() != 1) {
+                throw new UnsupportedOperationException("predictor " + predictor.getField() + " has an exponent");
+            }
+            DerivedField field = derivedFields.get(predictor.getField());
+            if (field == null) {
+                throw new UnsupportedOperationException("predictor " + predictor.getField() + " is not a derived field");
+            }
+            TfIdf tfIdf = parseTfIdf(field.getExpression(), derivedFields);
+            double[] previous = features.put(tfIdf.term(),
+                new double[] {tfIdf.idf(), predictor.getCoefficient().doubleValue()});
+            if (previous != null) {
+                throw new UnsupportedOperationException("term " + tfIdf.term() + " is used twice");
+            }
+        }
+
+        String[] terms = features.keySet().toArray(new String[0]);
+        double[] idf = new double[terms.length];
+        double[] coefficients = new double[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            idf[i] = features.get(terms[i])[0];
+            coefficients[i] = features.get(terms[i])[1];
+        }
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(pmmlBytes);
+        return new CompiledTodoModel(checksum.getValue(),
+            toCategory(table.getTargetCategory()), toCategory(tables.get(1).getTargetCategory()),
+            table.getIntercept().doubleValue(), terms, idf, coefficients);
+    }
+
+    private record TfIdf(String term, double idf) {
+    }
+
+    // matches <Apply function="*"><Constant>idf</Constant><TextIndex ...><Constant>term</Constant></TextIndex></Apply>
+    private static TfIdf parseTfIdf(Expression expression, Map<String, DerivedField> derivedFields) {
+        if (!(expression instanceof Apply apply) || !"*".equals(apply.getFunction())
+            || apply.getExpressions().size() != 2
+            || !(apply.getExpressions().get(0) instanceof Constant idf)
+            || !(apply.getExpressions().get(1) instanceof TextIndex textIndex)) {
+            throw new UnsupportedOperationException("feature is not a TF-IDF product");
+        }
+        if (textIndex.getLocalTermWeights() != TextIndex.LocalTermWeights.TERM_FREQUENCY
+            || textIndex.getCountHits() != TextIndex.CountHits.ALL_HITS
+            || textIndex.getMaxLevenshteinDistance() != 0
+            || !textIndex.isTokenize()
+            || !"\\s+".equals(textIndex.getWordSeparatorCharacterRE())
+            || textIndex.getWordRE() != null
+            || textIndex.hasTextIndexNormalizations()) {
+            throw new UnsupportedOperationException("TextIndex uses non-default settings");
+        }
+        if (textIndex.isCaseSensitive() && !isLowercasedInput(derivedFields.get(textIndex.getTextField()))) {
+            throw new UnsupportedOperationException("case-sensitive TextIndex on non-lowercased text");
+        }
+        if (!(textIndex.getExpression() instanceof Constant term)) {
+            throw new UnsupportedOperationException("TextIndex term is not a constant");
+        }
+        String value = term.getValue().toString();
+        if (value.isBlank() || value.chars().anyMatch(Character::isWhitespace)) {
+            throw new UnsupportedOperationException("only single-word terms are supported");
+        }
+        return new TfIdf(value.toLowerCase(Locale.ROOT), Double.parseDouble(idf.getValue().toString()));
+    }
+
+    private static boolean isLowercasedInput(DerivedField field) {
+        return field != null
+            && field.getExpression() instanceof Apply apply
+            && "lowercase".equals(apply.getFunction())
+            && apply.getExpressions().size() == 1
+            && apply.getExpressions().get(0) instanceof FieldRef;
+    }
+
+    private static int toCategory(Object targetCategory) {
+        try {
+            return Integer.parseInt(String.valueOf(targetCategory));
+        } catch (NumberFormatException e) {
+            throw new UnsupportedOperationException("target category " + targetCategory + " is not an integer");
+        }
+    }
+
+    /**
+     * Fails the build if the compiled model predicts differently than the PMML
+     * evaluator on the warm-up corpus.
+     */
+    private static void verify(CompiledTodoModel compiled, byte[] pmmlBytes) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        compiled.write(out);
+        CompiledTodoModel reread = CompiledTodoModel.read(ByteBuffer.wrap(out.toByteArray()));
+
+        TodoModel reference = TodoModel.fromPmml(new ByteArrayInputStream(pmmlBytes));
+        for (String text : TodoModel.WARM_UP_CORPUS) {
+            String expected = reference.predictClass(text);
+            String actual = TodoModel.mapIndexToLabel(reread.predict(text));
+            if (!expected.equals(actual)) {
+                throw new IllegalStateException("Compiled model predicts '" + actual + "' instead of '"
+                    + expected + "' for '" + text + "'");
+            }
+        }
+    }
+}
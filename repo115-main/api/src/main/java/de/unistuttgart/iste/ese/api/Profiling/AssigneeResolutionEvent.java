@@ -0,0 +1,22 @@
+package de.unistuttgart.iste.ese.api.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Loading the assignees of a todo write by their ids.
+ */
+@Name("de.unistuttgart.iste.ese.AssigneeResolution")
+@Label("Assignee Resolution")
+@Category({"Todo API", "Service"})
+@Description("Loading the assignees referenced by a todo")
+@StackTrace(false)
+public class AssigneeResolutionEvent extends Event {
+
+    @Label("Assignees")
+    public int assignees;
+}
@@ -0,0 +1,28 @@
+package de.unistuttgart.iste.ese.api.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call of {@code TodoModel.predictClass}.
+ */
+@Name("de.unistuttgart.iste.ese.Classification")
+@Label("Todo Classification")
+@Category({"Todo API", "Model"})
+@Description("Classification of a todo title by the model")
+@StackTrace(false)
+public class ClassificationEvent extends Event {
+
+    @Label("Compiled Model")
+    public boolean compiled;
+
+    @Label("Input Length")
+    public int inputLength;
+
+    @Label("Category")
+    public String category;
+}
@@ -0,0 +1,26 @@
+package de.unistuttgart.iste.ese.api.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A batch of rows written by the CSV export, from the first row to the last;
+ * includes reading the rows, which happens while they are written.
+ */
+@Name("de.unistuttgart.iste.ese.CsvExportBatch")
+@Label("CSV Export Batch")
+@Category({"Todo API", "Export"})
+@Description("A batch of todos read and written as CSV")
+@StackTrace(false)
+public class CsvExportBatchEvent extends Event {
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("First Todo Id")
+    public long firstTodoId;
+}
@@ -0,0 +1,28 @@
+package de.unistuttgart.iste.ese.api.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One attempt to load the classification model, from the compiled binary or from PMML.
+ */
+@Name("de.unistuttgart.iste.ese.ModelLoad")
+@Label("Model Load")
+@Category({"Todo API", "Model"})
+@Description("Loading, validation and warm-up of the classification model")
+@StackTrace(false)
+public class ModelLoadEvent extends Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Compiled Model")
+    public boolean compiled;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,26 @@
+package de.unistuttgart.iste.ese.api.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Creation or update of a todo in {@code ToDoService}, up to the save.
+ */
+@Name("de.unistuttgart.iste.ese.TodoWrite")
+@Label("Todo Write")
+@Category({"Todo API", "Service"})
+@Description("Creation or update of a todo, including validation and assignee resolution")
+public class TodoWriteEvent extends Event {
+
+    public static final String CREATE = "create";
+    public static final String UPDATE = "update";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Todo Id")
+    public long todoId;
+}
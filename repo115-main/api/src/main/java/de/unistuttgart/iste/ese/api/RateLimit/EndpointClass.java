@@ -0,0 +1,44 @@
+package de.unistuttgart.iste.ese.api.RateLimit;
+
+import java.util.Locale;
+
+/**
+ * Groups of endpoints with their own rate limit budget per client, see
+ * {@code todo.rate-limit.*} in {@code application.properties}.
+ */
+public enum EndpointClass {
+    /** Reading and editing todos and assignees. */
+    CRUD,
+    /** Model inference, CPU bound. */
+    CLASSIFY,
+    /** Full-table exports, direct or as a background job; hold a connection while the rows are read. */
+    EXPORT;
+
+    /**
+     * @param path The request path without context path.
+     * @return The endpoint class, or null for paths that are not limited.
+     */
+    public static EndpointClass of(String path) {
+        if (!path.startsWith("/api/v1/")) {
+            return null;
+        }
+        if (path.equals("/api/v1/todos/classify")) {
+            return CLASSIFY;
+        }
+        if (path.startsWith("/api/v1/csv-downloads/jobs/")) {
+            // polling a job and downloading its file do not touch the database
+            return CRUD;
+        }
+        if (path.startsWith("/api/v1/csv-downloads/")) {
+            return EXPORT;
+        }
+        return CRUD;
+    }
+
+    /**
+     * @return The name used in property keys and metric tags.
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
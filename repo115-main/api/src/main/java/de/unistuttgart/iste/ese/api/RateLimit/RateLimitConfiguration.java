@@ -0,0 +1,53 @@
+package de.unistuttgart.iste.ese.api.RateLimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-client rate limits, one budget per {@link EndpointClass}:
+ * {@code todo.rate-limit.<class>.permits-per-second} and
+ * {@code todo.rate-limit.<class>.capacity} (burst). Disabled with
+ * {@code todo.rate-limit.enabled=false}; the flag is read at startup and not
+ * with a condition, so it also works in the AOT-built startup image.
+ */
+@Configuration
+public class RateLimitConfiguration {
+
+    private static final Map<EndpointClass, double[]> DEFAULTS = Map.of(
+        EndpointClass.CRUD, new double[] {100, 200},
+        EndpointClass.CLASSIFY, new double[] {5, 10},
+        EndpointClass.EXPORT, new double[] {0.2, 3});
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(Environment environment, MeterRegistry meterRegistry) {
+        boolean enabled = environment.getProperty("todo.rate-limit.enabled", Boolean.class, true);
+        int maxClients = environment.getProperty("todo.rate-limit.max-clients", Integer.class, 100_000);
+        Map<EndpointClass, RateLimiter> limiters = new EnumMap<>(EndpointClass.class);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = "todo.rate-limit." + endpointClass.key() + ".";
+            double rate = environment.getProperty(prefix + "permits-per-second", Double.class,
+                DEFAULTS.get(endpointClass)[0]);
+            int capacity = environment.getProperty(prefix + "capacity", Integer.class,
+                (int) DEFAULTS.get(endpointClass)[1]);
+            RateLimiter limiter = new RateLimiter(rate, capacity, maxClients, System::nanoTime);
+            limiters.put(endpointClass, limiter);
+            Gauge.builder("todo.ratelimit.clients", limiter, RateLimiter::trackedClients)
+                .description("Clients with a rate limit bucket")
+                .tag("endpoint", endpointClass.key())
+                .register(meterRegistry);
+        }
+        FilterRegistrationBean<RateLimitFilter> registration =
+            new FilterRegistrationBean<>(new RateLimitFilter(enabled, limiters, meterRegistry));
+        // before the idempotency filter, rejected requests should cost as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
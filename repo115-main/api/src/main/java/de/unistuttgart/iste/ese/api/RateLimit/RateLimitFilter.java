@@ -0,0 +1,67 @@
+package de.unistuttgart.iste.ese.api.RateLimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admission control: rejects requests of clients that exhausted the budget of
+ * the endpoint class with 429 and a {@code Retry-After} in seconds, before any
+ * handler, database connection or model is touched.
+ * <p>
+ * Clients are identified by their remote address. Behind a reverse proxy,
+ * {@code server.forward-headers-strategy=native} makes that the original client
+ * address.
+ * <p>
+ * A disabled filter lets every request through.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final Map<EndpointClass, RateLimiter> limiters;
+    private final Map<EndpointClass, Counter> rejected = new EnumMap<>(EndpointClass.class);
+
+    public RateLimitFilter(boolean enabled, Map<EndpointClass, RateLimiter> limiters, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.limiters = limiters;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            rejected.put(endpointClass, Counter.builder("todo.ratelimit.rejected")
+                .description("Requests rejected by the rate limiter")
+                .tag("endpoint", endpointClass.key())
+                .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request.getRequestURI().substring(request.getContextPath().length()));
+        RateLimiter limiter = endpointClass == null ? null : limiters.get(endpointClass);
+        if (limiter != null) {
+            long waitNanos = limiter.tryAcquire(request.getRemoteAddr());
+            if (waitNanos > 0) {
+                rejected.get(endpointClass).increment();
+                long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+                response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Zu viele Anfragen, bitte später erneut versuchen");
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
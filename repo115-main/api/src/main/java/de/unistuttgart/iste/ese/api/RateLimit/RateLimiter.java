@@ -0,0 +1,93 @@
+package de.unistuttgart.iste.ese.api.RateLimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per client, without locks.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the "theoretical arrival
+ * time" of the generic cell rate algorithm: every permit moves it one emission
+ * interval into the future, and a request is admitted as long as it stays within
+ * {@code capacity} intervals of now. This is equivalent to a token bucket that
+ * refills one token per interval and holds at most {@code capacity} tokens, but
+ * needs only one compare-and-set per request.
+ * <p>
+ * Buckets are spread over independent stripes. A bucket whose arrival time lies
+ * in the past is full, i.e. identical to a new bucket, so a stripe that grows
+ * beyond its limit can drop these without losing state.
+ */
+public class RateLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxClientsPerStripe;
+    private final LongSupplier nanoClock;
+    @SuppressWarnings("unchecked")
+    private final Map<String, AtomicLong>[] stripes = new Map[STRIPES];
+
+    /**
+     * @param permitsPerSecond Sustained rate per client.
+     * @param capacity         Burst size per client.
+     * @param maxClients       Number of clients to track before idle buckets are dropped.
+     */
+    public RateLimiter(double permitsPerSecond, int capacity, int maxClients, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Rate and capacity must be positive");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = intervalNanos * capacity;
+        this.maxClientsPerStripe = Math.max(1, maxClients / STRIPES);
+        this.nanoClock = nanoClock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Takes a permit for a client.
+     *
+     * @return 0 if the request is admitted, otherwise the nanoseconds until the next permit.
+     */
+    public long tryAcquire(String client) {
+        Map<String, AtomicLong> stripe = stripes[Math.floorMod(client.hashCode(), STRIPES)];
+        long now = nanoClock.getAsLong();
+        AtomicLong arrival = stripe.get(client);
+        if (arrival == null) {
+            if (stripe.size() >= maxClientsPerStripe) {
+                dropFullBuckets(stripe, now);
+            }
+            arrival = stripe.computeIfAbsent(client, c -> new AtomicLong(now));
+        }
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                return next - now - burstNanos;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return The number of clients with a bucket.
+     */
+    public int trackedClients() {
+        int count = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            count += stripe.size();
+        }
+        return count;
+    }
+
+    private static void dropFullBuckets(Map<String, AtomicLong> stripe, long now) {
+        // a concurrent permit may be dropped with its bucket, which only errs in the client's favor
+        stripe.values().removeIf(arrival -> arrival.get() - now <= 0);
+    }
+}
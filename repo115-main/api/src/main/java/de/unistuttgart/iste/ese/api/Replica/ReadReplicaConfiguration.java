@@ -0,0 +1,92 @@
+package de.unistuttgart.iste.ese.api.Replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Routes read-only transactions to a read replica, active only if
+ * {@code todo.datasource.replica.url} is set.
+ * <p>
+ * The decision is made when the beans are created and not with a condition on
+ * this class: the startup image is built with Spring AOT, which evaluates
+ * conditions at build time, and the replica must still be configurable at deploy
+ * time. Without a replica the application data source is the primary pool.
+ * <p>
+ * With a replica, the application data source is a {@link LazyConnectionDataSourceProxy}: the
+ * physical connection is only fetched on the first statement, after the
+ * transaction manager marked it read-only, and read-only connections come from
+ * the {@link ReplicaDataSource}. Everything else uses the primary pool configured
+ * with the usual {@code spring.datasource.*} properties.
+ */
+@Configuration
+public class ReadReplicaConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    /**
+     * @return The replica pool, or null (no bean) if no replica is configured.
+     */
+    @Bean
+    public HikariDataSource replicaDataSource(
+        @Value("${todo.datasource.replica.url:}") String url,
+        @Value("${todo.datasource.replica.username:${spring.datasource.username:}}") String username,
+        @Value("${todo.datasource.replica.password:${spring.datasource.password:}}") String password,
+        @Value("${todo.datasource.replica.connection-timeout:1s}") Duration connectionTimeout) {
+        if (!StringUtils.hasText(url)) {
+            return null;
+        }
+        HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+            .url(url).username(username).password(password).build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        replica.setConnectionTimeout(connectionTimeout.toMillis());
+        // don't fail the startup if the replica is down, reads fall back to the primary
+        replica.setInitializationFailTimeout(-1);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") @Nullable DataSource replica,
+                                 @Value("${todo.datasource.replica.retry-interval:30s}") Duration retryInterval) {
+        if (replica == null) {
+            return primary;
+        }
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(new ReplicaDataSource(replica, primary, retryInterval));
+        return routing;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+        @Qualifier("replicaDataSource") @Nullable DataSource replica,
+        @Value("${todo.datasource.read-your-writes-window:5s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        // only needed while reads can go to a lagging replica
+        registration.setEnabled(replica != null);
+        return registration;
+    }
+}
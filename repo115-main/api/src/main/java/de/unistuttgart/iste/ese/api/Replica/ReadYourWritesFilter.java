@@ -0,0 +1,79 @@
+package de.unistuttgart.iste.ese.api.Replica;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Gives clients read-your-writes consistency while reads are served by a lagging
+ * replica. A request with a write method sets a short-lived cookie holding the end
+ * of the stickiness window; as long as a client sends it back, its reads go to
+ * the primary. Write requests themselves always use the primary, including their
+ * read-only validation queries.
+ * <p>
+ * The window lives in the cookie, so this works the same across several API nodes.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "rw-sticky";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    /**
+     * @return Whether the current request must not read from the replica.
+     */
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        PRIMARY_REQUIRED.set(write || isWithinWindow(request));
+        try {
+            if (write) {
+                // set before the handler runs, afterwards the response may already be committed
+                Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(System.currentTimeMillis() + window.toMillis()));
+                cookie.setMaxAge((int) Math.max(1, window.toSeconds() + 1));
+                cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+                cookie.setHttpOnly(true);
+                response.addCookie(cookie);
+            }
+            chain.doFilter(request, response);
+        } finally {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    private static boolean isWithinWindow(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return System.currentTimeMillis() < Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
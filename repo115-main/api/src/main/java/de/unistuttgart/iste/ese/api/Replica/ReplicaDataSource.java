@@ -0,0 +1,57 @@
+package de.unistuttgart.iste.ese.api.Replica;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Data source for read-only transactions. It hands out replica connections,
+ * except while read-your-writes stickiness is active for the current request
+ * (see {@link ReadYourWritesFilter}) or while the replica is unreachable; in
+ * both cases the read goes to the primary.
+ */
+public class ReplicaDataSource extends DelegatingDataSource {
+
+    private static final Log LOG = LogFactory.getLog(ReplicaDataSource.class);
+
+    private final DataSource primary;
+    private final long retryIntervalMillis;
+    private volatile long replicaRetryAt;
+
+    /**
+     * @param replica       The replica pool.
+     * @param primary       The primary pool, used as fallback.
+     * @param retryInterval How long to read from the primary after the replica failed.
+     */
+    public ReplicaDataSource(DataSource replica, DataSource primary, Duration retryInterval) {
+        super(replica);
+        this.primary = primary;
+        this.retryIntervalMillis = retryInterval.toMillis();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadYourWritesFilter.isPrimaryRequired() || System.currentTimeMillis() < replicaRetryAt) {
+            return primary.getConnection();
+        }
+        try {
+            return super.getConnection();
+        } catch (SQLException e) {
+            replicaRetryAt = System.currentTimeMillis() + retryIntervalMillis;
+            LOG.warn("Read replica unavailable, reading from the primary for the next " + retryIntervalMillis
+                + " ms: " + e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // credentials are configured per pool
+        return getConnection();
+    }
+}
@@ -0,0 +1,15 @@
+package de.unistuttgart.iste.ese.api.Repositories;
+
+import de.unistuttgart.iste.ese.api.Entities.ArchivedToDo;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ArchivedToDoRepository extends JpaRepository<ArchivedToDo, Long> {
+
+    // assignees in the same query, like ToDoRepository.findAll
+    @Override
+    @EntityGraph(attributePaths = "assigneeList")
+    List<ArchivedToDo> findAll();
+}
@@ -0,0 +1,11 @@
+package de.unistuttgart.iste.ese.api.Repositories;
+
+/**
+ * Todo counts of one assignee, aggregated in the database.
+ *
+ * @param open     Unfinished todos, including the overdue ones.
+ * @param overdue  Unfinished todos whose due date has passed.
+ * @param finished Finished todos that have not been archived yet.
+ */
+public record AssigneeWorkload(long assigneeId, long open, long overdue, long finished) {
+}
@@ -0,0 +1,157 @@
+package de.unistuttgart.iste.ese.api.Repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets ({@code ?fields=id,title}) for entity reads.
+ * <p>
+ * Only the requested columns are selected with a tuple query, so no entities are
+ * loaded for them. Collection attributes such as {@code assigneeList} are fetched
+ * with a second join query, and only if they were requested. Each result row is a
+ * map from field name to value, in the requested order.
+ * <p>
+ * A plain component rather than a {@code @Repository}, so an unknown field surfaces
+ * as {@link IllegalArgumentException} instead of being translated into a data access error.
+ */
+@Component
+public class FieldProjection {
+
+    private final EntityManager entityManager;
+
+    public FieldProjection(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Splits a {@code fields} request parameter.
+     *
+     * @return The field names in request order, without duplicates or blanks.
+     */
+    public static Set<String> parse(String fields) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            if (!name.isBlank()) {
+                names.add(name.trim());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Selects the given fields of all entities of a type, ordered by id.
+     *
+     * @throws IllegalArgumentException If a field is not an attribute of the entity.
+     */
+    public List<Map<String, Object>> findAll(Class<?> entityClass, Set<String> fields) {
+        return find(entityClass, fields, null);
+    }
+
+    /**
+     * Selects the given fields of one entity.
+     *
+     * @return The fields, or null if there is no entity with this id.
+     * @throws IllegalArgumentException If a field is not an attribute of the entity.
+     */
+    public Map<String, Object> findById(Class<?> entityClass, long id, Set<String> fields) {
+        List<Map<String, Object>> rows = find(entityClass, fields, id);
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    private List<Map<String, Object>> find(Class<?> entityClass, Set<String> fields, Long id) {
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("fields darf nicht leer sein");
+        }
+        EntityType<?> type = entityManager.getMetamodel().entity(entityClass);
+        String idName = idAttribute(type).getName();
+        List<String> columns = new ArrayList<>();
+        List<String> collections = new ArrayList<>();
+        for (String field : fields) {
+            Attribute<?, ?> attribute = attribute(type, field);
+            (attribute.isCollection() ? collections : columns).add(field);
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(entityClass);
+        List<Selection<?>> selections = new ArrayList<>();
+        // the id is always needed to attach the collections
+        selections.add(root.get(idName).alias(idName));
+        for (String column : columns) {
+            if (!column.equals(idName)) {
+                selections.add(root.get(column).alias(column));
+            }
+        }
+        query.multiselect(selections).orderBy(cb.asc(root.get(idName)));
+        if (id != null) {
+            query.where(cb.equal(root.get(idName), id));
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Map<Object, Map<String, Object>> rowsById = new HashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, collections.contains(field) ? new ArrayList<>() : tuple.get(field));
+            }
+            rows.add(row);
+            rowsById.put(tuple.get(idName), row);
+        }
+        for (String collection : collections) {
+            if (!rows.isEmpty()) {
+                fetchCollection(entityClass, idName, collection, id, rowsById);
+            }
+        }
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fetchCollection(Class<?> entityClass, String idName, String collection, Long id,
+                                 Map<Object, Map<String, Object>> rowsById) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(entityClass);
+        query.multiselect(root.get(idName), root.join(collection));
+        if (id != null) {
+            query.where(cb.equal(root.get(idName), id));
+        }
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = rowsById.get(tuple.get(0));
+            if (row != null) {
+                ((List<Object>) row.get(collection)).add(tuple.get(1));
+            }
+        }
+    }
+
+    private static SingularAttribute<?, ?> idAttribute(EntityType<?> type) {
+        return type.getSingularAttributes().stream()
+            .filter(SingularAttribute::isId)
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("No id attribute on " + type.getName()));
+    }
+
+    private static Attribute<?, ?> attribute(EntityType<?> type, String field) {
+        try {
+            return type.getAttribute(field);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unbekanntes Feld: " + field + " (erlaubt: "
+                + String.join(",", type.getAttributes().stream().map(Attribute::getName).sorted().toList()) + ")");
+        }
+    }
+}
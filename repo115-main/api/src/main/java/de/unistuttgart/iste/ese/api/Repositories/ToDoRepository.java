@@ -1,7 +1,50 @@
 package de.unistuttgart.iste.ese.api.Repositories;
 
 import de.unistuttgart.iste.ese.api.Entities.ToDo;
+import de.unistuttgart.iste.ese.api.Search.TodoText;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface ToDoRepository extends JpaRepository<ToDo, Long> {
+
+    // assignees in the same query, otherwise serializing the list loads them todo by todo
+    @Override
+    @EntityGraph(attributePaths = "assigneeList")
+    List<ToDo> findAll();
+
+    // streams plain DTOs (no managed entities) for building the search index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new de.unistuttgart.iste.ese.api.Search.TodoText(t.id, t.title, t.description) from ToDo t")
+    Stream<TodoText> streamAllTexts();
+
+    // ids only, so the page is cut in the database; the todos are loaded with findWithAssigneesByIdInOrderById
+    @Query(value = "select t.id from ToDo t join t.assigneeList a where a.id = :assigneeId order by t.id",
+        countQuery = "select count(t) from ToDo t join t.assigneeList a where a.id = :assigneeId")
+    Page<Long> findIdsByAssigneeId(@Param("assigneeId") long assigneeId, Pageable pageable);
+
+    // assignees in the same query instead of one lazy load per todo
+    @EntityGraph(attributePaths = "assigneeList")
+    List<ToDo> findWithAssigneesByIdInOrderById(Collection<Long> ids);
+
+    // losing an assignee is a change of the todo, so its version (ETag) moves on
+    @Modifying
+    @Query(value = "update todos set version = version + 1"
+        + " where id in (select todo_id from todo_assignee where assignee_id = :assigneeId)", nativeQuery = true)
+    int incrementVersionOfTodosAssignedTo(@Param("assigneeId") long assigneeId);
+
+    @Modifying
+    @Query(value = "delete from todo_assignee where assignee_id = :assigneeId", nativeQuery = true)
+    int unassignFromAllTodos(@Param("assigneeId") long assigneeId);
 }
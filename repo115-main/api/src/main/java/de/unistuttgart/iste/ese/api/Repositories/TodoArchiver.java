@@ -0,0 +1,70 @@
+package de.unistuttgart.iste.ese.api.Repositories;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Moves finished todos with their assignee links from {@code todos} to
+ * {@code todos_archive} with set-based statements, without loading entities.
+ * Must be called inside a transaction, which the caller keeps short by
+ * limiting the batch size.
+ */
+@Repository
+public class TodoArchiver {
+
+    // locks the batch, so a concurrent update of one of these todos waits and then fails its version check
+    private static final String SELECT_BATCH = """
+        select id from todos
+        where finished = true and finished_date < :cutoff
+        order by finished_date, id
+        limit :limit
+        for update""";
+
+    private static final String COPY_TODOS = """
+        insert into todos_archive (id, title, description, finished, priority, category,
+                                   created_date, due_date, finished_date, version, archived_date)
+        select id, title, description, finished, priority, category,
+               created_date, due_date, finished_date, version, :archivedDate
+        from todos where id in (:ids)""";
+
+    private static final String COPY_ASSIGNEES =
+        "insert into todo_assignee_archive (todo_id, assignee_id) select todo_id, assignee_id from todo_assignee where todo_id in (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TodoArchiver(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Moves up to {@code limit} todos finished before the cutoff to the archive.
+     *
+     * @return The ids of the archived todos.
+     */
+    public List<Long> archiveBatch(LocalDate cutoff, LocalDate archivedDate, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_BATCH,
+            new MapSqlParameterSource("cutoff", cutoff).addValue("limit", limit), Long.class);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids).addValue("archivedDate", archivedDate);
+        jdbcTemplate.update(COPY_TODOS, params);
+        jdbcTemplate.update(COPY_ASSIGNEES, params);
+        jdbcTemplate.update("delete from todo_assignee where todo_id in (:ids)", params);
+        jdbcTemplate.update("delete from todos where id in (:ids)", params);
+        return ids;
+    }
+
+    /**
+     * Removes an assignee from all archived todos.
+     */
+    public void removeAssignee(long assigneeId) {
+        jdbcTemplate.update("delete from todo_assignee_archive where assignee_id = :id",
+            new MapSqlParameterSource("id", assigneeId));
+    }
+}
@@ -0,0 +1,129 @@
+package de.unistuttgart.iste.ese.api.Repositories;
+
+import de.unistuttgart.iste.ese.api.Entities.Category;
+import de.unistuttgart.iste.ese.api.Entities.Priority;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bulk read path for full-table scans such as exports.
+ * <p>
+ * Rows are read with a forward-only JDBC cursor and a fixed fetch size and
+ * handed to the caller one by one, so memory use does not grow with the table
+ * and no managed entities or dirty-checking snapshots are created. Inside a
+ * Spring transaction the transaction's connection is used.
+ */
+@Repository
+public class TodoBulkReader {
+
+    // one row per todo and assignee, ordered so the rows of a todo are adjacent
+    private static final String TODOS_WITH_ASSIGNEES = """
+        select t.id, t.title, t.description, t.finished, t.created_date, t.due_date, t.finished_date,
+               t.category, t.priority, a.prename, a.name
+        from todos t
+        left join todo_assignee ta on ta.todo_id = t.id
+        left join assignees a on a.id = ta.assignee_id
+        order by t.id""";
+
+    // one pass over todo_assignee in assignee order (idx_todo_assignee_assignee), joined with todos by primary key
+    private static final String WORKLOAD_BY_ASSIGNEE = """
+        select ta.assignee_id,
+               sum(case when t.finished = false then 1 else 0 end),
+               sum(case when t.finished = false and t.due_date < ? then 1 else 0 end),
+               sum(case when t.finished = true then 1 else 0 end)
+        from todo_assignee ta
+        join todos t on t.id = ta.todo_id
+        group by ta.assignee_id
+        order by ta.assignee_id""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TodoBulkReader(DataSource dataSource, @Value("${todo.bulk.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Reads all todos with their assignees, ordered by id.
+     *
+     * @param consumer Receives each todo once all of its assignees have been read.
+     */
+    public void forEachTodo(Consumer<TodoRow> consumer) {
+        TodoRowCollector collector = new TodoRowCollector(consumer);
+        jdbcTemplate.query(TODOS_WITH_ASSIGNEES, collector);
+        collector.flush();
+    }
+
+    /**
+     * Counts the todos of each assignee in a single aggregate query.
+     *
+     * @param today Todos due before this date are overdue.
+     * @return One entry per assignee with at least one todo, ordered by assignee id.
+     */
+    public List<AssigneeWorkload> countWorkloadByAssignee(LocalDate today) {
+        return jdbcTemplate.query(WORKLOAD_BY_ASSIGNEE, (rs, rowNum) -> new AssigneeWorkload(
+            rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)), Date.valueOf(today));
+    }
+
+    private static final class TodoRowCollector implements RowCallbackHandler {
+
+        private final Consumer<TodoRow> consumer;
+        private TodoRow current;
+        private List<String> assigneeNames;
+
+        TodoRowCollector(Consumer<TodoRow> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.id() != id) {
+                flush();
+                assigneeNames = new ArrayList<>(2);
+                current = new TodoRow(id, rs.getString("title"), rs.getString("description"),
+                    rs.getBoolean("finished"), toLocalDate(rs.getDate("created_date")),
+                    toLocalDate(rs.getDate("due_date")), toLocalDate(rs.getDate("finished_date")),
+                    toCategory(rs, "category"), toPriority(rs, "priority"), Collections.unmodifiableList(assigneeNames));
+            }
+            String prename = rs.getString("prename");
+            String name = rs.getString("name");
+            if (prename != null || name != null) {
+                assigneeNames.add(prename + " " + name);
+            }
+        }
+
+        void flush() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+
+        private static LocalDate toLocalDate(Date date) {
+            return date == null ? null : date.toLocalDate();
+        }
+
+        private static Category toCategory(ResultSet rs, String column) throws SQLException {
+            byte code = rs.getByte(column);
+            return rs.wasNull() ? null : Category.fromCode(code);
+        }
+
+        private static Priority toPriority(ResultSet rs, String column) throws SQLException {
+            byte code = rs.getByte(column);
+            return rs.wasNull() ? null : Priority.fromCode(code);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package de.unistuttgart.iste.ese.api.Repositories;
+
+import de.unistuttgart.iste.ese.api.Entities.Category;
+import de.unistuttgart.iste.ese.api.Entities.Priority;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Read-only snapshot of a todo as delivered by {@link TodoBulkReader}, without
+ * persistence context or lazy associations.
+ *
+ * @param assigneeNames "prename name" of each assignee.
+ */
+public record TodoRow(long id, String title, String description, boolean finished, LocalDate createdDate,
+                      LocalDate dueDate, LocalDate finishedDate, Category category, Priority priority,
+                      List<String> assigneeNames) {
+}
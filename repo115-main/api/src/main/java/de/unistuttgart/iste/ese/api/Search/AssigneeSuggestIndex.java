@@ -0,0 +1,285 @@
+package de.unistuttgart.iste.ese.api.Search;
+
+import de.unistuttgart.iste.ese.api.Entities.Assignee;
+import de.unistuttgart.iste.ese.api.Invalidation.InvalidationBus;
+import de.unistuttgart.iste.ese.api.Repositories.AssigneeRepository;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory prefix index for the assignee typeahead.
+ * <p>
+ * Every assignee is indexed under three lowercased keys: "prename name", the
+ * name and the local part of the email address. The keys are kept in one sorted
+ * array, so all keys starting with a prefix form a contiguous range that is found
+ * by binary search. Like {@link TodoSearchIndex}, the index is built at startup and
+ * kept up to date by {@code AssigneeService} after each committed write, and
+ * through the {@link InvalidationBus} for writes on other nodes.
+ */
+@Component
+public class AssigneeSuggestIndex {
+
+    private static final Log LOG = LogFactory.getLog(AssigneeSuggestIndex.class);
+
+    private static final Comparator<Entry> BY_KEY_AND_ID = Comparator.comparing(Entry::key)
+        .thenComparingLong(entry -> entry.owner().id());
+
+    private final AssigneeRepository assigneeRepository;
+    private final TransactionTemplate transaction;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // sorted by key and then by assignee id, with the assignee of each key in the parallel array
+    private String[] keys = new String[16];
+    private AssigneeSuggestion[] owners = new AssigneeSuggestion[16];
+    private int size;
+    // indexed state per assignee, needed to find its keys again on update or delete
+    private final Map<Long, AssigneeSuggestion> assigneesById = new HashMap<>();
+
+    public AssigneeSuggestIndex(AssigneeRepository assigneeRepository, PlatformTransactionManager transactionManager,
+                                InvalidationBus invalidationBus) {
+        this.assigneeRepository = assigneeRepository;
+        // not read-only for the same reason as in TodoSearchIndex: a lagging replica must not be read
+        this.transaction = new TransactionTemplate(transactionManager);
+        // writes on this node update the index directly, see indexAfterCommit
+        invalidationBus.subscribe(InvalidationBus.ASSIGNEES, (id, remote) -> {
+            if (remote) {
+                refresh(id);
+            }
+        });
+    }
+
+    /**
+     * Fills the index with all assignees currently stored in the database.
+     * Assignees that were already indexed by a concurrent write are left untouched.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        List<AssigneeSuggestion> assignees = transaction.execute(status ->
+            assigneeRepository.findAll().stream().map(AssigneeSuggestIndex::toSuggestion).toList());
+        int indexed = 0;
+        lock.writeLock().lock();
+        try {
+            // sorted once: inserting the keys one by one would shift the arrays for every key
+            List<Entry> entries = new ArrayList<>(size + 3 * assignees.size());
+            for (int i = 0; i < size; i++) {
+                entries.add(new Entry(keys[i], owners[i]));
+            }
+            for (AssigneeSuggestion assignee : assignees) {
+                if (!assigneesById.containsKey(assignee.id())) {
+                    for (String key : keysOf(assignee)) {
+                        entries.add(new Entry(key, assignee));
+                    }
+                    assigneesById.put(assignee.id(), assignee);
+                    indexed++;
+                }
+            }
+            entries.sort(BY_KEY_AND_ID);
+            int capacity = Math.max(16, entries.size());
+            keys = new String[capacity];
+            owners = new AssigneeSuggestion[capacity];
+            for (int i = 0; i < entries.size(); i++) {
+                keys[i] = entries.get(i).key();
+                owners[i] = entries.get(i).owner();
+            }
+            size = entries.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOG.info("Assignee suggest index built with " + indexed + " assignees in "
+            + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Finds the assignees with a key starting with the query, ignoring case.
+     *
+     * @param query The typed prefix.
+     * @param limit The maximum number of suggestions to return.
+     * @return The matching assignees in the order of their first matching key.
+     */
+    public List<AssigneeSuggestion> suggest(String query, int limit) {
+        String prefix = fold(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<AssigneeSuggestion> suggestions = new ArrayList<>(Math.min(limit, 16));
+            Set<Long> seen = new HashSet<>();
+            // an assignee has at most three keys, so at most 3 * limit keys are visited
+            for (int i = position(prefix, Long.MIN_VALUE); i < size && keys[i].startsWith(prefix); i++) {
+                if (seen.add(owners[i].id())) {
+                    suggestions.add(owners[i]);
+                    if (suggestions.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Schedules the given assignee to be (re-)indexed once the surrounding
+     * transaction commits, or indexes it right away if no transaction is active.
+     *
+     * @param assignee The saved assignee.
+     */
+    public void indexAfterCommit(Assignee assignee) {
+        AssigneeSuggestion suggestion = toSuggestion(assignee);
+        TodoSearchIndex.afterCommit(() -> index(suggestion));
+    }
+
+    /**
+     * Schedules the assignee with the given id to be removed from the index once
+     * the surrounding transaction commits, or removes it right away if no
+     * transaction is active.
+     *
+     * @param id The id of the deleted assignee.
+     */
+    public void removeAfterCommit(long id) {
+        TodoSearchIndex.afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Re-reads an assignee changed on another node and indexes it, or removes it
+     * if it no longer exists.
+     */
+    public void refresh(long id) {
+        transaction.executeWithoutResult(status -> assigneeRepository.findById(id).ifPresentOrElse(
+            assignee -> index(toSuggestion(assignee)),
+            () -> remove(id)));
+    }
+
+    /**
+     * Replaces the indexed keys of an assignee.
+     */
+    public void index(AssigneeSuggestion assignee) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(assignee.id());
+            addInternal(assignee);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an assignee from the index.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of indexed assignees.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return assigneesById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static AssigneeSuggestion toSuggestion(Assignee assignee) {
+        return new AssigneeSuggestion(assignee.getId(), assignee.getPrename(), assignee.getName(), assignee.getEmail());
+    }
+
+    private static List<String> keysOf(AssigneeSuggestion assignee) {
+        String email = assignee.email() == null ? "" : assignee.email();
+        int at = email.indexOf('@');
+        List<String> keys = new ArrayList<>(3);
+        for (String key : List.of(fold(assignee.prename() + " " + assignee.name()), fold(assignee.name()),
+            fold(at < 0 ? email : email.substring(0, at)))) {
+            if (!key.isEmpty() && !keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // for single writes, build() sorts all keys at once instead
+    private void addInternal(AssigneeSuggestion assignee) {
+        for (String key : keysOf(assignee)) {
+            int position = position(key, assignee.id());
+            if (size == keys.length) {
+                int capacity = size + (size >> 1);
+                keys = Arrays.copyOf(keys, capacity);
+                owners = Arrays.copyOf(owners, capacity);
+            }
+            int tail = size - position;
+            System.arraycopy(keys, position, keys, position + 1, tail);
+            System.arraycopy(owners, position, owners, position + 1, tail);
+            keys[position] = key;
+            owners[position] = assignee;
+            size++;
+        }
+        assigneesById.put(assignee.id(), assignee);
+    }
+
+    private void removeInternal(long id) {
+        AssigneeSuggestion assignee = assigneesById.remove(id);
+        if (assignee == null) {
+            return;
+        }
+        for (String key : keysOf(assignee)) {
+            int position = position(key, id);
+            int tail = size - position - 1;
+            System.arraycopy(keys, position + 1, keys, position, tail);
+            System.arraycopy(owners, position + 1, owners, position, tail);
+            size--;
+            keys[size] = null;
+            owners[size] = null;
+        }
+    }
+
+    /**
+     * @return The position of the entry (key, id), or where it would be inserted.
+     */
+    private int position(String key, long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = keys[middle].compareTo(key);
+            if (comparison < 0 || comparison == 0 && owners[middle].id() < id) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private record Entry(String key, AssigneeSuggestion owner) {
+    }
+}
@@ -0,0 +1,7 @@
+package de.unistuttgart.iste.ese.api.Search;
+
+/**
+ * An assignee as shown in the typeahead, served from {@link AssigneeSuggestIndex} without a database read.
+ */
+public record AssigneeSuggestion(long id, String prename, String name, String email) {
+}
@@ -0,0 +1,43 @@
+package de.unistuttgart.iste.ese.api.Search;
+
+import org.jpmml.model.TermUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits free text into search terms using the same rules as the PMML
+ * {@code TextIndex} in {@code model.pmml}: the text is lowercased, split on the
+ * default word separator {@code \s+} and every token is stripped of leading and
+ * trailing punctuation exactly like the JPMML evaluator does it.
+ */
+public final class TermTokenizer {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("\\s+");
+
+    private TermTokenizer() {
+    }
+
+    /**
+     * Tokenizes the given text.
+     *
+     * @param text The text to tokenize, may be null.
+     * @return The terms in order of appearance (duplicates included), never null.
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String[] chunks = WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT));
+        List<String> terms = new ArrayList<>(chunks.length);
+        for (String chunk : chunks) {
+            String term = TermUtil.trimPunctuation(chunk);
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,628 @@
+package de.unistuttgart.iste.ese.api.Search;
+
+import de.unistuttgart.iste.ese.api.Entities.ToDo;
+import de.unistuttgart.iste.ese.api.Invalidation.InvalidationBus;
+import de.unistuttgart.iste.ese.api.Repositories.ToDoRepository;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over the title and description of all todos.
+ * <p>
+ * Every term maps to a posting list of todo ids kept in sorted primitive arrays,
+ * so a query is a k-way merge over a handful of arrays ranked with BM25. Only the
+ * best hits are kept, so postings that cannot beat the worst of them are skipped
+ * (MaxScore with per-block maxima) instead of being scored. The index
+ * is built once at startup by streaming the todo texts from the database and is
+ * kept up to date by {@code ToDoService} after each committed write, and through
+ * the {@link InvalidationBus} for writes on other nodes.
+ */
+@Component
+public class TodoSearchIndex {
+
+    private static final Log LOG = LogFactory.getLog(TodoSearchIndex.class);
+
+    // standard BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // upper bounds are computed like the scores, the slack covers the rounding of sums in another order
+    private static final double BOUND_SLACK = 1.0 + 1e-9;
+
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+        .thenComparing(Comparator.comparingLong(Hit::id).reversed());
+
+    private final ToDoRepository toDoRepository;
+    private final TransactionTemplate transaction;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+    // distinct terms per todo, needed to drop its postings again on update or delete
+    private final Map<Long, String[]> termsByTodo = new HashMap<>();
+    private long totalLength;
+    // todos removed while the index is being built, null otherwise: the build may
+    // have read them before they were deleted and must not add them back
+    private Set<Long> removedDuringBuild;
+
+    public TodoSearchIndex(ToDoRepository toDoRepository, PlatformTransactionManager transactionManager,
+                           InvalidationBus invalidationBus) {
+        this.toDoRepository = toDoRepository;
+        // deliberately not read-only: with a read replica configured, read-only transactions may
+        // lag behind, and the index must not miss a todo committed before it was built
+        this.transaction = new TransactionTemplate(transactionManager);
+        // writes on this node update the index directly, see indexAfterCommit
+        invalidationBus.subscribe(InvalidationBus.TODOS, (id, remote) -> {
+            if (remote) {
+                refresh(id);
+            }
+        });
+    }
+
+    /**
+     * Fills the index with all todos currently stored in the database. Todos that
+     * were already indexed by a concurrent write are left untouched, todos removed
+     * by a concurrent delete are skipped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        long[] indexed = {0};
+        lock.writeLock().lock();
+        try {
+            removedDuringBuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            transaction.executeWithoutResult(status -> {
+                try (Stream<TodoText> texts = toDoRepository.streamAllTexts()) {
+                    texts.forEach(text -> {
+                        if (indexIfAbsent(text)) {
+                            indexed[0]++;
+                        }
+                    });
+                }
+            });
+        } finally {
+            lock.writeLock().lock();
+            try {
+                removedDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        LOG.info("Search index built with " + indexed[0] + " todos in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Searches the index and ranks the matching todos with BM25.
+     *
+     * @param query The free text query, tokenized like the indexed texts.
+     * @param limit The maximum number of hits to return.
+     * @return The ids of the best matching todos, best match first.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(TermTokenizer.tokenize(query)));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int todoCount = termsByTodo.size();
+            if (todoCount == 0) {
+                return List.of();
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / todoCount);
+
+            List<Postings> lists = new ArrayList<>(queryTerms.size());
+            for (String term : queryTerms) {
+                Postings postings = postingsByTerm.get(term);
+                if (postings != null) {
+                    lists.add(postings);
+                }
+            }
+            if (lists.isEmpty()) {
+                return List.of();
+            }
+
+            // lists in ascending order of the most they can add to a score; bounds[i] is the most
+            // the lists 0..i can add together
+            TermCursor[] terms = new TermCursor[lists.size()];
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = new TermCursor(lists.get(i), todoCount, averageLength);
+            }
+            Arrays.sort(terms, Comparator.comparingDouble(term -> term.upperBound));
+            double[] bounds = new double[terms.length];
+            double total = 0.0;
+            for (int i = 0; i < terms.length; i++) {
+                total += terms[i].upperBound;
+                bounds[i] = total;
+            }
+
+            // k-way merge over the id-sorted posting lists, keeping only the best hits. Once the
+            // best hits are known, a todo must score above the worst of them (the threshold):
+            // a todo only in lists 0..firstEssential-1 cannot, so candidates come from the other
+            // lists and the first ones are only looked up for them
+            PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, todoCount) + 1, WORST_FIRST);
+            double threshold = Double.NEGATIVE_INFINITY;
+            int firstEssential = 0;
+            while (firstEssential < terms.length) {
+                long current = Long.MAX_VALUE;
+                for (int i = firstEssential; i < terms.length; i++) {
+                    TermCursor term = terms[i];
+                    // a block whose best posting cannot reach the threshold even with all other
+                    // lists is skipped; its todos may still come up through another list, but
+                    // then they score below the threshold anyway
+                    term.skipBlocks(threshold - (total - term.upperBound));
+                    if (term.hasNext() && term.id() < current) {
+                        current = term.id();
+                    }
+                }
+                if (current == Long.MAX_VALUE) {
+                    break;
+                }
+
+                double score = 0.0;
+                for (int i = firstEssential; i < terms.length; i++) {
+                    TermCursor term = terms[i];
+                    if (term.hasNext() && term.id() == current) {
+                        score += term.score();
+                        term.position++;
+                    }
+                }
+                for (int i = firstEssential - 1; i >= 0 && score + bounds[i] > threshold; i--) {
+                    TermCursor term = terms[i];
+                    // the block of the candidate gives a tighter bound than the whole list
+                    if (!term.advanceShallow(current)
+                        || score + term.blockBound() + (i > 0 ? bounds[i - 1] : 0.0) <= threshold) {
+                        continue;
+                    }
+                    if (term.advanceTo(current)) {
+                        score += term.score();
+                        term.position++;
+                    }
+                }
+
+                if (best.size() < limit) {
+                    best.add(new Hit(current, score));
+                } else if (score > threshold) {
+                    // ids come in ascending order, so on equal scores the hit already kept ranks first
+                    best.poll();
+                    best.add(new Hit(current, score));
+                }
+                if (best.size() == limit) {
+                    threshold = best.peek().score();
+                    while (firstEssential < terms.length && bounds[firstEssential] <= threshold) {
+                        firstEssential++;
+                    }
+                }
+            }
+
+            Long[] ranked = new Long[best.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = best.poll().id();
+            }
+            return Arrays.asList(ranked);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Schedules the given todo to be (re-)indexed once the surrounding transaction
+     * commits, or indexes it right away if no transaction is active.
+     *
+     * @param toDo The saved todo.
+     */
+    public void indexAfterCommit(ToDo toDo) {
+        long id = toDo.getId();
+        String title = toDo.getTitle();
+        String description = toDo.getDescription();
+        afterCommit(() -> index(id, title, description));
+    }
+
+    /**
+     * Schedules the todo with the given id to be removed from the index once the
+     * surrounding transaction commits, or removes it right away if no transaction
+     * is active.
+     *
+     * @param id The id of the deleted todo.
+     */
+    public void removeAfterCommit(long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Re-reads a todo changed on another node and indexes it, or removes it if it
+     * no longer exists.
+     */
+    public void refresh(long id) {
+        transaction.executeWithoutResult(status -> toDoRepository.findById(id).ifPresentOrElse(
+            toDo -> index(id, toDo.getTitle(), toDo.getDescription()),
+            () -> remove(id)));
+    }
+
+    /**
+     * Replaces the indexed text of a todo.
+     */
+    public void index(long id, String title, String description) {
+        List<String> tokens = tokenize(title, description);
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            addInternal(id, tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a todo from the index.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            if (removedDuringBuild != null) {
+                removedDuringBuild.add(id);
+            }
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of indexed todos.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsByTodo.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean indexIfAbsent(TodoText text) {
+        List<String> tokens = tokenize(text.title(), text.description());
+        lock.writeLock().lock();
+        try {
+            if (termsByTodo.containsKey(text.id())
+                || removedDuringBuild != null && removedDuringBuild.contains(text.id())) {
+                return false;
+            }
+            addInternal(text.id(), tokens);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<String> tokenize(String title, String description) {
+        List<String> tokens = new ArrayList<>(TermTokenizer.tokenize(title));
+        tokens.addAll(TermTokenizer.tokenize(description));
+        return tokens;
+    }
+
+    private void addInternal(long id, List<String> tokens) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+
+        String[] terms = new String[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            Postings postings = postingsByTerm.computeIfAbsent(entry.getKey(), Postings::new);
+            postings.insert(id, entry.getValue(), tokens.size());
+            terms[i++] = postings.term;
+        }
+        termsByTodo.put(id, terms);
+        totalLength += tokens.size();
+    }
+
+    private void removeInternal(long id) {
+        String[] terms = termsByTodo.remove(id);
+        if (terms == null) {
+            return;
+        }
+        // every posting of a todo stores the same length, so it is subtracted only once
+        int length = 0;
+        for (String term : terms) {
+            Postings postings = postingsByTerm.get(term);
+            length = Math.max(length, postings.delete(id));
+            if (postings.size == 0) {
+                postingsByTerm.remove(term);
+            }
+        }
+        totalLength -= length;
+    }
+
+    /**
+     * Runs the action once the surrounding transaction commits, or right away if no transaction is active.
+     */
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static double score(double idf, int frequency, int length, double averageLength) {
+        double norm = K1 * (1.0 - B + B * length / averageLength);
+        return idf * frequency * (K1 + 1.0) / (frequency + norm);
+    }
+
+    private record Hit(long id, double score) {
+    }
+
+    /**
+     * Position of a query in one posting list, with the BM25 weight of the term.
+     */
+    private static final class TermCursor {
+        private final Postings postings;
+        private final double idf;
+        private final double averageLength;
+        // the most a single posting of this list can add to a score
+        private final double upperBound;
+        private int position;
+        // block for the bounds, may be ahead of the block of the position
+        private int block;
+        private int boundedBlock = -1;
+        private double blockBound;
+
+        TermCursor(Postings postings, int todoCount, double averageLength) {
+            this.postings = postings;
+            int df = postings.size;
+            this.idf = Math.log(1.0 + (todoCount - df + 0.5) / (df + 0.5));
+            this.averageLength = averageLength;
+            this.upperBound = maxScore(postings.impacts);
+        }
+
+        boolean hasNext() {
+            return position < postings.size;
+        }
+
+        long id() {
+            return postings.ids[position];
+        }
+
+        double score() {
+            return TodoSearchIndex.score(idf, postings.frequencies[position], postings.lengths[position], averageLength);
+        }
+
+        /**
+         * Moves the block, but not the position, to the block containing the first
+         * posting with an id of at least the given one.
+         *
+         * @return Whether there is such a posting.
+         */
+        boolean advanceShallow(long id) {
+            block = Math.max(block, position / Postings.BLOCK_SIZE);
+            int blocks = (postings.size + Postings.BLOCK_SIZE - 1) / Postings.BLOCK_SIZE;
+            while (block < blocks && blockEnd() < id) {
+                block++;
+            }
+            return block < blocks;
+        }
+
+        /**
+         * @return The most a posting of the block can add to a score.
+         */
+        double blockBound() {
+            if (block != boundedBlock) {
+                boundedBlock = block;
+                blockBound = maxScore(postings.blockImpacts[block]);
+            }
+            return blockBound;
+        }
+
+        /**
+         * @return The last id in the block.
+         */
+        long blockEnd() {
+            return postings.ids[Math.min(postings.size, (block + 1) * Postings.BLOCK_SIZE) - 1];
+        }
+
+        /**
+         * Moves past the blocks from the position on whose postings add at most the given bound to a score.
+         */
+        void skipBlocks(double bound) {
+            while (hasNext() && advanceShallow(id()) && blockBound() <= bound) {
+                position = Math.min(postings.size, (block + 1) * Postings.BLOCK_SIZE);
+            }
+        }
+
+        /**
+         * Moves to the first posting with an id of at least the given one.
+         *
+         * @return Whether the list contains the id.
+         */
+        boolean advanceTo(long id) {
+            if (!advanceShallow(id)) {
+                position = postings.size;
+                return false;
+            }
+            int from = Math.max(position, block * Postings.BLOCK_SIZE);
+            int to = Math.min(postings.size, (block + 1) * Postings.BLOCK_SIZE);
+            int found = Arrays.binarySearch(postings.ids, from, to, id);
+            position = found >= 0 ? found : -found - 1;
+            return found >= 0;
+        }
+
+        private double maxScore(int[] impacts) {
+            // the score grows with the frequency and falls with the length, so one of the impacts scores best
+            double max = 0.0;
+            for (int i = 0; i < impacts.length; i += 2) {
+                max = Math.max(max, TodoSearchIndex.score(idf, impacts[i], impacts[i + 1], averageLength));
+            }
+            return max * BOUND_SLACK;
+        }
+    }
+
+    /**
+     * Posting list of one term: todo ids in ascending order with the term
+     * frequency and the token count of the todo in parallel arrays. For every
+     * block of {@value #BLOCK_SIZE} postings the impacts are kept as well: the
+     * (frequency, length) pairs not beaten by another posting of the block in both
+     * frequency and length. Whatever the average length, the best score of the block
+     * is the score of one of them, so a query can tell whether a block can contain a
+     * good enough hit without scoring it.
+     */
+    private static final class Postings {
+        static final int BLOCK_SIZE = 64;
+
+        private final String term;
+        private long[] ids = new long[4];
+        private int[] frequencies = new int[4];
+        private int[] lengths = new int[4];
+        private int size;
+        // frequency and length pairs, see addImpact
+        private int[][] blockImpacts = new int[1][];
+        // over all postings ever added; deletes leave them as they are, which still gives an upper bound
+        private int[] impacts = new int[0];
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void insert(long id, int frequency, int length) {
+            int position = size;
+            // ids are generated in ascending order, so new todos are simply appended
+            if (size > 0 && ids[size - 1] >= id) {
+                position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    frequencies[position] = frequency;
+                    lengths[position] = length;
+                    recomputeBlocks(position / BLOCK_SIZE, position / BLOCK_SIZE + 1);
+                    return;
+                }
+                position = -position - 1;
+            }
+            if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            int tail = size - position;
+            System.arraycopy(ids, position, ids, position + 1, tail);
+            System.arraycopy(frequencies, position, frequencies, position + 1, tail);
+            System.arraycopy(lengths, position, lengths, position + 1, tail);
+            ids[position] = id;
+            frequencies[position] = frequency;
+            lengths[position] = length;
+            size++;
+            if (tail == 0) {
+                append(position, frequency, length);
+            } else {
+                // the postings behind it moved to the next slot, so their blocks changed as well
+                recomputeBlocks(position / BLOCK_SIZE);
+            }
+        }
+
+        int delete(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return -1;
+            }
+            int length = lengths[position];
+            int tail = size - position - 1;
+            System.arraycopy(ids, position + 1, ids, position, tail);
+            System.arraycopy(frequencies, position + 1, frequencies, position, tail);
+            System.arraycopy(lengths, position + 1, lengths, position, tail);
+            size--;
+            recomputeBlocks(position / BLOCK_SIZE);
+            return length;
+        }
+
+        private void append(int position, int frequency, int length) {
+            impacts = addImpact(impacts, frequency, length);
+            int block = position / BLOCK_SIZE;
+            if (position % BLOCK_SIZE == 0) {
+                ensureBlockCapacity(block + 1);
+                blockImpacts[block] = new int[] {frequency, length};
+            } else {
+                blockImpacts[block] = addImpact(blockImpacts[block], frequency, length);
+            }
+        }
+
+        private void recomputeBlocks(int from) {
+            recomputeBlocks(from, (size + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        }
+
+        private void recomputeBlocks(int from, int to) {
+            ensureBlockCapacity(to);
+            for (int block = from; block < to; block++) {
+                int[] blockImpacts = new int[0];
+                for (int i = block * BLOCK_SIZE, end = Math.min(size, i + BLOCK_SIZE); i < end; i++) {
+                    blockImpacts = addImpact(blockImpacts, frequencies[i], lengths[i]);
+                    impacts = addImpact(impacts, frequencies[i], lengths[i]);
+                }
+                this.blockImpacts[block] = blockImpacts;
+            }
+        }
+
+        /**
+         * Adds a posting to impacts stored as alternating frequencies and lengths.
+         * Pairs beaten by another one in both frequency and length are dropped, so
+         * only a few remain.
+         *
+         * @return The given impacts if the posting is beaten by one of them, new impacts otherwise.
+         */
+        private static int[] addImpact(int[] impacts, int frequency, int length) {
+            int kept = 0;
+            for (int i = 0; i < impacts.length; i += 2) {
+                if (impacts[i] >= frequency && impacts[i + 1] <= length) {
+                    return impacts;
+                }
+                if (impacts[i] > frequency || impacts[i + 1] < length) {
+                    kept += 2;
+                }
+            }
+            int[] added = new int[kept + 2];
+            int next = 0;
+            for (int i = 0; i < impacts.length; i += 2) {
+                if (impacts[i] > frequency || impacts[i + 1] < length) {
+                    added[next++] = impacts[i];
+                    added[next++] = impacts[i + 1];
+                }
+            }
+            added[next++] = frequency;
+            added[next] = length;
+            return added;
+        }
+
+        private void ensureBlockCapacity(int blocks) {
+            if (blocks > blockImpacts.length) {
+                blockImpacts = Arrays.copyOf(blockImpacts, Math.max(blocks, blockImpacts.length + (blockImpacts.length >> 1)));
+            }
+        }
+    }
+}
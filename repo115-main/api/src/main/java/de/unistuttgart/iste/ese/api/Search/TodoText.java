@@ -0,0 +1,7 @@
+package de.unistuttgart.iste.ese.api.Search;
+
+/**
+ * The searchable text of a single todo, read without loading the full entity.
+ */
+public record TodoText(long id, String title, String description) {
+}
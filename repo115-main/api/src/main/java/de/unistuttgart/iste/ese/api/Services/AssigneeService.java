@@ -2,12 +2,30 @@ package de.unistuttgart.iste.ese.api.Services;
 
 import de.unistuttgart.iste.ese.api.Entities.Assignee;
 import de.unistuttgart.iste.ese.api.Entities.ToDo;
+import de.unistuttgart.iste.ese.api.Invalidation.InvalidationBus;
 import de.unistuttgart.iste.ese.api.Repositories.AssigneeRepository;
+import de.unistuttgart.iste.ese.api.Repositories.AssigneeWorkload;
+import de.unistuttgart.iste.ese.api.Repositories.FieldProjection;
 import de.unistuttgart.iste.ese.api.Repositories.ToDoRepository;
-import jakarta.transaction.Transactional;
+import de.unistuttgart.iste.ese.api.Repositories.TodoArchiver;
+import de.unistuttgart.iste.ese.api.Repositories.TodoBulkReader;
+import de.unistuttgart.iste.ese.api.Search.AssigneeSuggestIndex;
+import de.unistuttgart.iste.ese.api.Search.AssigneeSuggestion;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
 import java.util.regex.Pattern;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -15,26 +33,88 @@ public class AssigneeService {
 
     private final AssigneeRepository assigneeRepository;
     private final ToDoRepository toDoRepository;
+    private final TodoBulkReader todoBulkReader;
+    private final FieldProjection fieldProjection;
+    private final InvalidationBus invalidationBus;
+    private final TodoArchiver todoArchiver;
+    private final AssigneeSuggestIndex assigneeSuggestIndex;
 
-    public AssigneeService(AssigneeRepository assigneeRepository, ToDoRepository toDoRepository) {
+    public AssigneeService(AssigneeRepository assigneeRepository, ToDoRepository toDoRepository,
+                           TodoBulkReader todoBulkReader, FieldProjection fieldProjection,
+                           InvalidationBus invalidationBus, TodoArchiver todoArchiver,
+                           AssigneeSuggestIndex assigneeSuggestIndex) {
         this.assigneeRepository = assigneeRepository;
         this.toDoRepository = toDoRepository;
+        this.todoBulkReader = todoBulkReader;
+        this.fieldProjection = fieldProjection;
+        this.invalidationBus = invalidationBus;
+        this.todoArchiver = todoArchiver;
+        this.assigneeSuggestIndex = assigneeSuggestIndex;
     }
 
+    /**
+     * @throws DuplicateEmailException If another assignee has the same email.
+     */
     public Assignee createAssignee(Assignee assignee) {
         assignee.setId(0);
-        return assigneeRepository.save(assignee);
+        Assignee saved = saveUnique(assignee);
+        assigneeSuggestIndex.indexAfterCommit(saved);
+        invalidationBus.publish(InvalidationBus.ASSIGNEES, saved.getId());
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Assignee> getAllAssignees() {
         return assigneeRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllAssigneeFields(Set<String> fields) {
+        return fieldProjection.findAll(Assignee.class, fields);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAssigneeFieldsById(long id, Set<String> fields) {
+        return fieldProjection.findById(Assignee.class, id, fields);
+    }
+
+    @Transactional(readOnly = true)
     public Assignee getAssigneeById(long id) {
         return assigneeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Assignee nicht gefunden mit ID: " + id));
     }
 
+    /**
+     * Served from the in-memory index alone, so no transaction or connection is needed.
+     *
+     * @return Up to limit assignees whose "prename name", name or email local part starts with the query.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<AssigneeSuggestion> suggestAssignees(String query, int limit) {
+        return assigneeSuggestIndex.suggest(query, limit);
+    }
+
+    /**
+     * @return A page of the todos assigned to the assignee, ordered by id.
+     */
+    @Transactional(readOnly = true)
+    public Page<ToDo> getToDosOfAssignee(long id, Pageable pageable) {
+        Page<Long> ids = toDoRepository.findIdsByAssigneeId(id, pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        return new PageImpl<>(toDoRepository.findWithAssigneesByIdInOrderById(ids.getContent()),
+                pageable, ids.getTotalElements());
+    }
+
+    /**
+     * @return Open, overdue and finished todo counts of every assignee with at least one todo.
+     */
+    @Transactional(readOnly = true)
+    public List<AssigneeWorkload> getWorkload() {
+        return todoBulkReader.countWorkloadByAssignee(LocalDate.now());
+    }
+
     // standard "Dot-Atom" structure for the local part to ban consecutive/start/end
     // dots; restrict domain to uni-stuttgart.de (including subdomains like iste.uni-stuttgart.de)
     private static final Pattern EMAIL_PATTERN = Pattern.compile(
@@ -60,12 +140,45 @@ public class AssigneeService {
         return EMAIL_PATTERN.matcher(email).matches();
     }
 
+    @Transactional(readOnly = true)
     public boolean existsById(long id) {
         return assigneeRepository.existsById(id);
     }
 
-    public Assignee updateAssignee(Assignee assignee) {
-        return assigneeRepository.save(assignee);
+    /**
+     * Copies the editable fields onto the stored assignee.
+     *
+     * @param expectedVersions The versions from If-Match, or null.
+     * @throws PreconditionFailedException If the assignee is at none of the expected versions.
+     * @throws OptimisticLockingFailureException If the assignee was changed concurrently.
+     * @throws DuplicateEmailException If another assignee has the new email.
+     */
+    public Assignee updateAssignee(Assignee assignee, Set<Long> expectedVersions) {
+        Assignee existing = assigneeRepository.findById(assignee.getId())
+                .orElseThrow(() -> new RuntimeException("Assignee nicht gefunden mit ID: " + assignee.getId()));
+        if (expectedVersions != null && !expectedVersions.contains(existing.getVersion())) {
+            throw new PreconditionFailedException(expectedVersions, existing.getVersion());
+        }
+        existing.setName(assignee.getName());
+        existing.setPrename(assignee.getPrename());
+        existing.setEmail(assignee.getEmail());
+        invalidationBus.publish(InvalidationBus.ASSIGNEES, existing.getId());
+        Assignee saved = saveUnique(existing);
+        assigneeSuggestIndex.indexAfterCommit(saved);
+        return saved;
+    }
+
+    // flushes right away, so the unique index on the normalized email is checked inside this call
+    private Assignee saveUnique(Assignee assignee) {
+        try {
+            return assigneeRepository.saveAndFlush(assignee);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Assignee.EMAIL_UNIQUE_CONSTRAINT)) {
+                throw new DuplicateEmailException(assignee.getEmail(), e);
+            }
+            throw e;
+        }
     }
 
     public void deleteAssignee(long id) {
@@ -73,13 +186,12 @@ public class AssigneeService {
         Assignee assigneeToDelete = assigneeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Assignee nicht gefunden"));
 
-        List<ToDo> allToDos = toDoRepository.findAll();
-        for (ToDo todo : allToDos) {
-            if (todo.getAssigneeList().contains(assigneeToDelete)) {
-                todo.getAssigneeList().remove(assigneeToDelete);
-                toDoRepository.save(todo);
-            }
-        }
+        // set-based instead of loading and rewriting the assignee list of every todo
+        toDoRepository.incrementVersionOfTodosAssignedTo(id);
+        toDoRepository.unassignFromAllTodos(id);
+        todoArchiver.removeAssignee(id);
         assigneeRepository.delete(assigneeToDelete);
+        assigneeSuggestIndex.removeAfterCommit(id);
+        invalidationBus.publish(InvalidationBus.ASSIGNEES, id);
     }
 }
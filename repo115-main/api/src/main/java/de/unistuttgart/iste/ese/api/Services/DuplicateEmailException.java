@@ -0,0 +1,12 @@
+package de.unistuttgart.iste.ese.api.Services;
+
+/**
+ * Thrown if another assignee already has the email address, compared after
+ * trimming and lowercasing.
+ */
+public class DuplicateEmailException extends RuntimeException {
+
+    public DuplicateEmailException(String email, Throwable cause) {
+        super("E-Mail-Adresse ist bereits vergeben: " + email, cause);
+    }
+}
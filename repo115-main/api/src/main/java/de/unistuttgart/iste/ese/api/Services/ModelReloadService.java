@@ -0,0 +1,174 @@
+package de.unistuttgart.iste.ese.api.Services;
+
+import de.unistuttgart.iste.ese.api.TodoModel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads the classification model without a restart. A reload is triggered
+ * either by the file watcher on {@code todo.model.path} (if
+ * {@code todo.model.watch} is enabled) or through the {@code model} actuator
+ * endpoint. Parsing, validation and warm-up run on a dedicated background thread;
+ * the live model is only replaced if all of them succeed.
+ */
+@Service
+public class ModelReloadService {
+
+    private static final Log LOG = LogFactory.getLog(ModelReloadService.class);
+
+    // editors and copy tools often write a file in several steps, so wait for them to settle
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private final TodoModel todoModel;
+    private final Path modelPath;
+    private final boolean watch;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "model-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Instant lastReload;
+    private volatile boolean lastReloadSucceeded = true;
+    private volatile String lastError;
+    private WatchService watchService;
+    private ScheduledFuture<?> pendingReload;
+
+    public ModelReloadService(TodoModel todoModel,
+                              @Value("${todo.model.path:model.pmml}") String modelPath,
+                              @Value("${todo.model.watch:false}") boolean watch) {
+        this.todoModel = todoModel;
+        this.modelPath = Path.of(modelPath).toAbsolutePath();
+        this.watch = watch;
+    }
+
+    @PostConstruct
+    void startWatching() {
+        if (!watch) {
+            return;
+        }
+        if (!Files.isRegularFile(modelPath)) {
+            LOG.warn("Model file " + modelPath + " does not exist, hot reload by file watcher is disabled");
+            return;
+        }
+        try {
+            watchService = modelPath.getFileSystem().newWatchService();
+            modelPath.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            LOG.error("Could not watch model file " + modelPath + ":", e);
+            return;
+        }
+        Thread watcher = new Thread(this::watchLoop, "model-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        LOG.info("Watching " + modelPath + " for model changes");
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        executor.shutdownNow();
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Loads the model file in the background and swaps it in if it is valid.
+     *
+     * @return Completes with whether the new model is live.
+     */
+    public CompletableFuture<Boolean> reload() {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        executor.execute(() -> result.complete(reloadNow()));
+        return result;
+    }
+
+    public Instant getLastReload() {
+        return lastReload;
+    }
+
+    public boolean isLastReloadSucceeded() {
+        return lastReloadSucceeded;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Path getModelPath() {
+        return modelPath;
+    }
+
+    private boolean reloadNow() {
+        boolean success;
+        if (Files.isRegularFile(modelPath)) {
+            try (InputStream in = Files.newInputStream(modelPath)) {
+                success = todoModel.reload(in);
+                lastError = success ? null : "Model in " + modelPath + " is invalid, see log";
+            } catch (IOException e) {
+                LOG.error("Could not read model file " + modelPath + ":", e);
+                success = false;
+                lastError = e.getMessage();
+            }
+        } else {
+            // no external file configured, reload the bundled model
+            success = todoModel.loadModel();
+            lastError = success ? null : "Bundled model could not be loaded, see log";
+        }
+        lastReload = Instant.now();
+        lastReloadSucceeded = success;
+        return success;
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (modelPath.getFileName().equals(event.context())) {
+                        scheduleReload();
+                    }
+                }
+                if (!key.reset()) {
+                    LOG.warn("Model directory of " + modelPath + " is no longer watchable");
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // application shutdown
+        }
+    }
+
+    private synchronized void scheduleReload() {
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+        }
+        pendingReload = executor.schedule(() -> {
+            LOG.info("Model file " + modelPath + " changed, reloading");
+            reloadNow();
+        }, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,24 @@
+package de.unistuttgart.iste.ese.api.Services;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown if none of the versions given with {@code If-Match} is the current
+ * version of the entity, i.e. the client edited an outdated state.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    private final long currentVersion;
+
+    public PreconditionFailedException(Set<Long> expectedVersions, long currentVersion) {
+        super((expectedVersions.isEmpty() ? "If-Match nennt keine gültige Version"
+            : "Version " + expectedVersions.stream().map(String::valueOf).collect(Collectors.joining(", "))
+                + " ist veraltet") + ", aktuelle Version ist " + currentVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
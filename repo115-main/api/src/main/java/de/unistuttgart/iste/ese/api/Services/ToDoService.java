@@ -1,35 +1,69 @@
 package de.unistuttgart.iste.ese.api.Services;
 
 import de.unistuttgart.iste.ese.api.Entities.Assignee;
+import de.unistuttgart.iste.ese.api.Entities.Category;
+import de.unistuttgart.iste.ese.api.Entities.Priority;
 import de.unistuttgart.iste.ese.api.Entities.ToDo;
+import de.unistuttgart.iste.ese.api.Invalidation.InvalidationBus;
+import de.unistuttgart.iste.ese.api.Profiling.AssigneeResolutionEvent;
+import de.unistuttgart.iste.ese.api.Profiling.TodoWriteEvent;
 import de.unistuttgart.iste.ese.api.Repositories.AssigneeRepository;
+import de.unistuttgart.iste.ese.api.Repositories.FieldProjection;
 import de.unistuttgart.iste.ese.api.Repositories.ToDoRepository;
-import jakarta.transaction.Transactional;
+import de.unistuttgart.iste.ese.api.Repositories.TodoBulkReader;
+import de.unistuttgart.iste.ese.api.Repositories.TodoRow;
+import de.unistuttgart.iste.ese.api.Search.TodoSearchIndex;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ToDoService {
 
+    private static final Log LOG = LogFactory.getLog(ToDoService.class);
+    private static final int FINISH_ATTEMPTS = 5;
+
     private final ToDoRepository toDoRepository;
     private final AssigneeRepository assigneeRepository;
-
-    public ToDoService(ToDoRepository toDoRepository, AssigneeRepository assigneeRepository) {
+    private final TodoSearchIndex todoSearchIndex;
+    private final TodoBulkReader todoBulkReader;
+    private final FieldProjection fieldProjection;
+    private final TransactionTemplate transactionTemplate;
+    private final InvalidationBus invalidationBus;
+
+    public ToDoService(ToDoRepository toDoRepository, AssigneeRepository assigneeRepository,
+                       TodoSearchIndex todoSearchIndex, TodoBulkReader todoBulkReader,
+                       FieldProjection fieldProjection, PlatformTransactionManager transactionManager,
+                       InvalidationBus invalidationBus) {
         this.toDoRepository = toDoRepository;
         this.assigneeRepository = assigneeRepository;
+        this.todoSearchIndex = todoSearchIndex;
+        this.todoBulkReader = todoBulkReader;
+        this.fieldProjection = fieldProjection;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.invalidationBus = invalidationBus;
     }
 
     public ToDo createTodoWithAssignees(Map<String, Object> requestData) {
+        TodoWriteEvent event = new TodoWriteEvent();
+        event.begin();
 
         ToDo toDo = new ToDo();
         toDo.setTitle((String) requestData.get("title"));
         toDo.setDescription((String) requestData.get("description"));
-        toDo.setPriority((String) requestData.get("priority"));
+        toDo.setPriority(parsePriority(requestData.get("priority")));
 
         // 1. Datum parsen absichern
         if (requestData.get("dueDate") == null) {
@@ -57,52 +91,130 @@ public class ToDoService {
         if (!validateWithAssigneeIds(toDo, assigneeIdList)) {
             throw new IllegalArgumentException("Validierung fehlgeschlagen");
         }
+        List<Assignee> assignees = new ArrayList<>();
+        if (assigneeIdList != null && !assigneeIdList.isEmpty()) {
+            assignees = resolveAssignees(assigneeIdList);
+        }
 
         if (requestData.get("category") != null) {
-            String category = requestData.get("category").toString();
-            if (!category.equalsIgnoreCase("work") && !category.equalsIgnoreCase("private")
-                    && !category.equalsIgnoreCase("general")) {
-                throw new IllegalArgumentException("Ungültige Kategorie");
-            }
-            toDo.setCategory(category);
+            toDo.setCategory(parseCategory(requestData.get("category")));
         } else {
-            toDo.setCategory("GENERAL");
+            toDo.setCategory(Category.GENERAL);
         }
 
         if (requestData.get("finished") != null) {
             toDo.setFinished((Boolean) requestData.get("finished"));
         }
 
-        return createTodoWithAssigneesInternal(toDo, assigneeIdList);
+        ToDo saved = createTodoWithAssigneesInternal(toDo, assignees);
+        commit(event, TodoWriteEvent.CREATE, saved);
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<ToDo> getAllToDos() {
         return toDoRepository.findAll();
     }
 
+    /**
+     * @param fields The requested todo fields, see {@link FieldProjection}.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllToDoFields(Set<String> fields) {
+        return fieldProjection.findAll(ToDo.class, fields);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTodoFieldsById(Long id, Set<String> fields) {
+        return fieldProjection.findById(ToDo.class, id, fields);
+    }
+
+    @Transactional(readOnly = true)
+    public long countToDos() {
+        return toDoRepository.count();
+    }
+
+    /**
+     * Streams all todos for exports without loading them into the persistence context.
+     */
+    @Transactional(readOnly = true)
+    public void exportToDos(Consumer<TodoRow> consumer) {
+        todoBulkReader.forEachTodo(consumer);
+    }
+
+    @Transactional(readOnly = true)
     public ToDo getTodoById(Long id) {
         return toDoRepository.findById(id).orElse(null);
     }
 
-    public ToDo markTodoAsFinished(Long id) {
-        return toDoRepository.findById(id).map(todo -> {
-            todo.setFinished(true);
-            todo.setFinishedDate(LocalDate.now());
-            return toDoRepository.save(todo);
-        }).orElse(null);
+    @Transactional(readOnly = true)
+    public List<ToDo> searchToDos(String query, int limit) {
+        List<Long> rankedIds = todoSearchIndex.search(query, limit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ToDo> todosById = toDoRepository.findWithAssigneesByIdInOrderById(rankedIds).stream()
+                .collect(Collectors.toMap(ToDo::getId, todo -> todo));
+        // keep the ranking of the index, skip hits deleted in the meantime
+        return rankedIds.stream()
+                .map(todosById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Marks a todo as finished. Finishing commutes with concurrent edits, so a
+     * version conflict is retried on a fresh copy (up to {@value #FINISH_ATTEMPTS}
+     * attempts, each in its own transaction) unless the client sent a version.
+     *
+     * @param expectedVersions The versions from If-Match, or null.
+     * @return The finished todo, or null if it does not exist.
+     * @throws PreconditionFailedException If the todo is at none of the expected versions.
+     * @throws OptimisticLockingFailureException If the conflict persists.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ToDo markTodoAsFinished(Long id, Set<Long> expectedVersions) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> toDoRepository.findById(id).map(todo -> {
+                    checkVersion(todo.getVersion(), expectedVersions);
+                    todo.setFinished(true);
+                    todo.setFinishedDate(LocalDate.now());
+                    invalidationBus.publish(InvalidationBus.TODOS, id);
+                    return toDoRepository.saveAndFlush(todo);
+                }).orElse(null));
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersions != null || attempt >= FINISH_ATTEMPTS) {
+                    throw e;
+                }
+                LOG.debug("Concurrent update of todo " + id + ", retrying finish (attempt " + attempt + ")");
+            }
+        }
     }
 
+    @Transactional(readOnly = true)
     public boolean existsById(Long id) {
         return toDoRepository.existsById(id);
     }
 
     public void deleteTodo(Long id) {
         toDoRepository.deleteById(id);
+        todoSearchIndex.removeAfterCommit(id);
+        invalidationBus.publish(InvalidationBus.TODOS, id);
     }
 
-    public ToDo updateTodoWithAssignees(Long id, Map<String, Object> requestData) {
+    /**
+     * @param expectedVersions The versions from If-Match, or null.
+     * @throws PreconditionFailedException If the todo is at none of the expected versions.
+     * @throws OptimisticLockingFailureException If the todo was changed concurrently.
+     * @throws IllegalArgumentException If one of the assignees does not exist.
+     */
+    public ToDo updateTodoWithAssignees(Long id, Map<String, Object> requestData, Set<Long> expectedVersions) {
+        TodoWriteEvent event = new TodoWriteEvent();
+        event.begin();
         ToDo existingToDo = toDoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("ToDo nicht gefunden: " + id));
+        checkVersion(existingToDo.getVersion(), expectedVersions);
 
         if (requestData.get("title") != null) {
             existingToDo.setTitle((String) requestData.get("title"));
@@ -111,7 +223,11 @@ public class ToDoService {
             existingToDo.setDescription((String) requestData.get("description"));
         }
         if (requestData.get("priority") != null) {
-            existingToDo.setPriority((String) requestData.get("priority"));
+            Priority priority = parsePriority(requestData.get("priority"));
+            if (priority == null) {
+                throw new IllegalArgumentException("Ungültige Priorität");
+            }
+            existingToDo.setPriority(priority);
         }
         if (requestData.get("finished") != null) {
             boolean finished = (Boolean) requestData.get("finished");
@@ -136,30 +252,57 @@ public class ToDoService {
             List<Long> assigneeIdList = rawList.stream()
                     .map(obj -> Long.valueOf(obj.toString()))
                     .collect(Collectors.toList());
-
-            List<Assignee> assignees = new ArrayList<>();
-            for (Long assigneeId : assigneeIdList) {
-                Assignee assignee = assigneeRepository.findById(assigneeId)
-                        .orElseThrow(() -> new RuntimeException("Assignee nicht gefunden: " + assigneeId));
-                assignees.add(assignee);
-            }
-            existingToDo.setAssigneeList(assignees);
+            existingToDo.setAssigneeList(resolveAssignees(assigneeIdList));
         } else if (requestData.containsKey("assigneeIdList")) {
             // Wenn der Key da ist aber null, Liste leeren (optional, je nach Anforderung)
             existingToDo.setAssigneeList(new ArrayList<>());
         }
 
         if (requestData.get("category") != null) {
-            String category = requestData.get("category").toString();
-            if (!category.equalsIgnoreCase("work") && !category.equalsIgnoreCase("private")
-                    && !category.equalsIgnoreCase("general")) {
-                throw new IllegalArgumentException("Ungültige Kategorie");
-            }
-            existingToDo.setCategory(category);
+            existingToDo.setCategory(parseCategory(requestData.get("category")));
+        }
+        // flush here so a concurrent update fails as OptimisticLockingFailureException right away
+        ToDo saved = toDoRepository.saveAndFlush(existingToDo);
+        todoSearchIndex.indexAfterCommit(saved);
+        invalidationBus.publish(InvalidationBus.TODOS, saved.getId());
+        commit(event, TodoWriteEvent.UPDATE, saved);
+        return saved;
+    }
+
+    private static void commit(TodoWriteEvent event, String operation, ToDo saved) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.todoId = saved.getId();
+            event.commit();
+        }
+    }
+
+    /**
+     * @return The priority, or null if the value is missing or not a priority.
+     */
+    private static Priority parsePriority(Object value) {
+        return value instanceof String priority ? Priority.parse(priority) : null;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the value is not a category.
+     */
+    private static Category parseCategory(Object value) {
+        Category category = Category.parse(value.toString());
+        if (category == null) {
+            throw new IllegalArgumentException("Ungültige Kategorie");
+        }
+        return category;
+    }
+
+    private static void checkVersion(long currentVersion, Set<Long> expectedVersions) {
+        if (expectedVersions != null && !expectedVersions.contains(currentVersion)) {
+            throw new PreconditionFailedException(expectedVersions, currentVersion);
         }
-        return toDoRepository.save(existingToDo);
     }
 
+    @Transactional(readOnly = true)
     public boolean validateUpdateRequest(Map<String, Object> requestData) {
         if (requestData.get("title") != null) {
             String title = (String) requestData.get("title");
@@ -179,11 +322,8 @@ public class ToDoService {
             }
         }
 
-        if (requestData.get("priority") != null) {
-            String priority = (String) requestData.get("priority");
-            if (!priority.equals("LOW") && !priority.equals("MEDIUM") && !priority.equals("HIGH")) {
-                return false;
-            }
+        if (requestData.get("priority") != null && parsePriority(requestData.get("priority")) == null) {
+            return false;
         }
 
         if (requestData.get("assigneeIdList") != null) {
@@ -197,22 +337,13 @@ public class ToDoService {
                 if (uniqueIds.size() != assigneeIdList.size()) {
                     return false;
                 }
-                for (Integer assigneeId : assigneeIdList) {
-                    if (!assigneeRepository.existsById(assigneeId.longValue())) {
-                        return false;
-                    }
-                }
-            } catch (Exception e) {
+                } catch (Exception e) {
                 return false;
             }
         }
 
-        if (requestData.get("category") != null) {
-            String category = requestData.get("category").toString();
-            if (!category.equalsIgnoreCase("work") && !category.equalsIgnoreCase("private")
-                    && !category.equalsIgnoreCase("general")) {
-                return false;
-            }
+        if (requestData.get("category") != null && Category.parse(requestData.get("category").toString()) == null) {
+            return false;
         }
 
         return true;
@@ -228,10 +359,7 @@ public class ToDoService {
             return false;
         }
 
-        if (toDo.getPriority() == null ||
-                !(toDo.getPriority().equals("LOW") ||
-                        toDo.getPriority().equals("MEDIUM") ||
-                        toDo.getPriority().equals("HIGH"))) {
+        if (toDo.getPriority() == null) {
             return false;
         }
 
@@ -240,17 +368,11 @@ public class ToDoService {
             if (uniqueIds.size() != assigneeIdList.size()) {
                 return false;
             }
-
-            for (Long assigneeId : assigneeIdList) {
-                if (!assigneeRepository.existsById(assigneeId)) {
-                    return false;
-                }
-            }
         }
         return true;
     }
 
-    private ToDo createTodoWithAssigneesInternal(ToDo toDo, List<Long> assigneeIdList) {
+    private ToDo createTodoWithAssigneesInternal(ToDo toDo, List<Assignee> assignees) {
 
         toDo.setCreatedDate(LocalDate.now());
 
@@ -260,18 +382,38 @@ public class ToDoService {
             }
         }
 
-        if (assigneeIdList != null && !assigneeIdList.isEmpty()) {
-            List<Assignee> assignees = new ArrayList<>();
-            for (Long assigneeId : assigneeIdList) {
-                Assignee assignee = assigneeRepository.findById(assigneeId)
-                        .orElseThrow(() -> new RuntimeException("Assignee nicht gefunden: " + assigneeId));
-                assignees.add(assignee);
-            }
-            toDo.setAssigneeList(assignees);
-        } else {
-            toDo.setAssigneeList(new ArrayList<>());
-        }
+        toDo.setAssigneeList(assignees);
 
-        return toDoRepository.save(toDo);
+        ToDo saved = toDoRepository.save(toDo);
+        todoSearchIndex.indexAfterCommit(saved);
+        invalidationBus.publish(InvalidationBus.TODOS, saved.getId());
+        return saved;
+    }
+
+    /**
+     * Loads the assignees with one query, in the order of the given ids.
+     *
+     * @throws IllegalArgumentException If one of the assignees does not exist.
+     */
+    private List<Assignee> resolveAssignees(List<Long> assigneeIdList) {
+        AssigneeResolutionEvent event = new AssigneeResolutionEvent();
+        event.begin();
+        Map<Long, Assignee> byId = new HashMap<>();
+        for (Assignee assignee : assigneeRepository.findAllById(assigneeIdList)) {
+            byId.put(assignee.getId(), assignee);
+        }
+        if (byId.size() != new HashSet<>(assigneeIdList).size()) {
+            throw new IllegalArgumentException("Validierung fehlgeschlagen");
+        }
+        List<Assignee> assignees = new ArrayList<>(assigneeIdList.size());
+        for (Long assigneeId : assigneeIdList) {
+            assignees.add(byId.get(assigneeId));
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.assignees = assignees.size();
+            event.commit();
+        }
+        return assignees;
     }
 }
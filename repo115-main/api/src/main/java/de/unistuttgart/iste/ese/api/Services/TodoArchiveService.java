@@ -0,0 +1,133 @@
+package de.unistuttgart.iste.ese.api.Services;
+
+import de.unistuttgart.iste.ese.api.Entities.ArchivedToDo;
+import de.unistuttgart.iste.ese.api.Invalidation.InvalidationBus;
+import de.unistuttgart.iste.ese.api.Repositories.ArchivedToDoRepository;
+import de.unistuttgart.iste.ese.api.Repositories.TodoArchiver;
+import de.unistuttgart.iste.ese.api.Search.TodoSearchIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@code todos} sized to active work: todos finished more than
+ * {@code todo.archive.retention-days} ago are moved to {@code todos_archive} by a
+ * background job every {@code todo.archive.interval}. Each batch of
+ * {@code todo.archive.batch-size} todos is moved in its own short transaction,
+ * so the job never holds locks on more than one batch.
+ */
+@Service
+@Transactional
+public class TodoArchiveService {
+
+    private static final Log LOG = LogFactory.getLog(TodoArchiveService.class);
+
+    private final TodoArchiver todoArchiver;
+    private final ArchivedToDoRepository archivedToDoRepository;
+    private final TodoSearchIndex todoSearchIndex;
+    private final InvalidationBus invalidationBus;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final int batchSize;
+    private final Duration interval;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "todo-archive");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TodoArchiveService(TodoArchiver todoArchiver, ArchivedToDoRepository archivedToDoRepository,
+                              TodoSearchIndex todoSearchIndex, InvalidationBus invalidationBus,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${todo.archive.enabled:true}") boolean enabled,
+                              @Value("${todo.archive.retention-days:30}") int retentionDays,
+                              @Value("${todo.archive.batch-size:500}") int batchSize,
+                              @Value("${todo.archive.interval:1h}") Duration interval) {
+        this.todoArchiver = todoArchiver;
+        this.archivedToDoRepository = archivedToDoRepository;
+        this.todoSearchIndex = todoSearchIndex;
+        this.invalidationBus = invalidationBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.interval = interval;
+    }
+
+    @PostConstruct
+    void startSchedule() {
+        if (!enabled) {
+            return;
+        }
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                archiveFinishedTodos();
+            } catch (RuntimeException e) {
+                LOG.error("Archiving finished todos failed, retrying in " + interval + ":", e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Moves all todos finished before the retention period to the archive, one
+     * batch per transaction.
+     *
+     * @return The number of archived todos.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int archiveFinishedTodos() {
+        LocalDate today = LocalDate.now();
+        LocalDate cutoff = today.minusDays(retentionDays);
+        long start = System.nanoTime();
+        int archived = 0;
+        while (true) {
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> batch = todoArchiver.archiveBatch(cutoff, today, batchSize);
+                for (long id : batch) {
+                    todoSearchIndex.removeAfterCommit(id);
+                    invalidationBus.publish(InvalidationBus.TODOS, id);
+                }
+                return batch;
+            });
+            archived += ids.size();
+            if (ids.size() < batchSize || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            LOG.info("Archived " + archived + " todos finished before " + cutoff + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+        return archived;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArchivedToDo> getArchivedToDos() {
+        return archivedToDoRepository.findAll();
+    }
+
+    @Transactional(readOnly = true)
+    public ArchivedToDo getArchivedToDoById(long id) {
+        return archivedToDoRepository.findById(id).orElse(null);
+    }
+}
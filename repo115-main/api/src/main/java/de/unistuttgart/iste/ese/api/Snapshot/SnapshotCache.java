@@ -0,0 +1,98 @@
+package de.unistuttgart.iste.ese.api.Snapshot;
+
+import de.unistuttgart.iste.ese.api.Invalidation.InvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of serialized responses for the hot list endpoints.
+ * <p>
+ * A snapshot is served for at most {@code todo.snapshot.ttl} after it started
+ * computing; concurrent requests that miss wait for the one computation in
+ * progress instead of each running the query. Every committed change of a todo
+ * or assignee, on this node or another, drops all snapshots through the
+ * {@link InvalidationBus}, and a computation that overlapped an invalidation is
+ * handed to its waiters but not kept. With a ttl of 0 (the default) the cache
+ * is disabled.
+ */
+@Component
+public class SnapshotCache {
+
+    private final long ttlNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private record Entry(long generation, long startNanos, CompletableFuture<byte[]> bytes) {
+    }
+
+    public SnapshotCache(@Value("${todo.snapshot.ttl:0ms}") Duration ttl, InvalidationBus invalidationBus) {
+        this.ttlNanos = ttl.toNanos();
+        if (isEnabled()) {
+            // the lists embed assignees, so any change invalidates every snapshot
+            invalidationBus.subscribe(InvalidationBus.TODOS, (key, remote) -> invalidate());
+            invalidationBus.subscribe(InvalidationBus.ASSIGNEES, (key, remote) -> invalidate());
+        }
+    }
+
+    /**
+     * @return Whether snapshots are cached at all.
+     */
+    public boolean isEnabled() {
+        return ttlNanos > 0;
+    }
+
+    /**
+     * Returns the current snapshot for a key, computing it if there is none.
+     *
+     * @param key    The endpoint and encoding of the snapshot.
+     * @param loader Computes the serialized response; called at most once at a time per key.
+     */
+    public byte[] get(String key, Supplier<byte[]> loader) {
+        while (true) {
+            long now = System.nanoTime();
+            Entry entry = entries.get(key);
+            if (entry != null && (!entry.bytes().isDone() || now - entry.startNanos() < ttlNanos)) {
+                try {
+                    return entry.bytes().join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+            Entry computation = new Entry(generation.get(), now, new CompletableFuture<>());
+            boolean claimed = entry == null
+                ? entries.putIfAbsent(key, computation) == null
+                : entries.replace(key, entry, computation);
+            if (!claimed) {
+                // another request started the computation first
+                continue;
+            }
+            try {
+                byte[] bytes = loader.get();
+                computation.bytes().complete(bytes);
+                if (generation.get() != computation.generation()) {
+                    entries.remove(key, computation);
+                }
+                return bytes;
+            } catch (RuntimeException | Error e) {
+                entries.remove(key, computation);
+                computation.bytes().completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Drops all snapshots.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+}
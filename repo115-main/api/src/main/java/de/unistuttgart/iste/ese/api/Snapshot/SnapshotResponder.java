@@ -0,0 +1,87 @@
+package de.unistuttgart.iste.ese.api.Snapshot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Serves list responses from the {@link SnapshotCache}. The body is serialized
+ * once per encoding (JSON, Smile or CBOR, chosen from the Accept header like the
+ * regular content negotiation) and the cached bytes are written as they are.
+ */
+@Component
+public class SnapshotResponder {
+
+    private final SnapshotCache snapshotCache;
+    private final List<AbstractJackson2HttpMessageConverter> converters;
+
+    public SnapshotResponder(SnapshotCache snapshotCache, MappingJackson2HttpMessageConverter jsonConverter,
+                             MappingJackson2SmileHttpMessageConverter smileConverter,
+                             MappingJackson2CborHttpMessageConverter cborConverter) {
+        this.snapshotCache = snapshotCache;
+        // JSON first, it is the default for wildcards
+        this.converters = List.of(jsonConverter, smileConverter, cborConverter);
+    }
+
+    /**
+     * @param name   The endpoint, part of the cache key.
+     * @param accept The Accept header of the request, may be null.
+     * @param loader Loads the response body on a cache miss.
+     * @return The response, or null if snapshots are disabled or no encoding is
+     * acceptable; the caller then answers the request as usual.
+     */
+    public ResponseEntity<byte[]> respond(String name, String accept, Supplier<?> loader) {
+        if (!snapshotCache.isEnabled()) {
+            return null;
+        }
+        for (MediaType acceptedType : acceptedTypes(accept)) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            for (AbstractJackson2HttpMessageConverter converter : converters) {
+                for (MediaType supportedType : converter.getSupportedMediaTypes()) {
+                    if (supportedType.isConcrete() && acceptedType.isCompatibleWith(supportedType)) {
+                        byte[] body = snapshotCache.get(name + "|" + supportedType,
+                            () -> serialize(converter, loader.get()));
+                        return ResponseEntity.ok().contentType(supportedType).body(body);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<MediaType> acceptedTypes(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return List.of(MediaType.ALL);
+        }
+        try {
+            List<MediaType> types = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            // stable, so types of equal quality keep the client's order
+            types.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+            return types;
+        } catch (InvalidMediaTypeException e) {
+            return List.of();
+        }
+    }
+
+    private static byte[] serialize(AbstractJackson2HttpMessageConverter converter, Object body) {
+        try {
+            return converter.getObjectMapper().writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
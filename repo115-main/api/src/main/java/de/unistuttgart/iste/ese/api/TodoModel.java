@@ -1,98 +1,199 @@
 package de.unistuttgart.iste.ese.api;
 
-import jakarta.xml.bind.JAXBException;
+import de.unistuttgart.iste.ese.api.Profiling.ClassificationEvent;
+import de.unistuttgart.iste.ese.api.Profiling.ModelLoadEvent;
+import de.unistuttgart.iste.ese.api.Trace.RequestTrace;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.jpmml.evaluator.Evaluator;
+import org.jpmml.evaluator.InputField;
 import org.jpmml.evaluator.LoadingModelEvaluatorBuilder;
-import org.jpmml.evaluator.OutputField;
 import org.jpmml.evaluator.TargetField;
-import org.xml.sax.SAXException;
 
-import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.CRC32C;
 
 
 /**
  * A class for loading and using a PMML-based Todo classification model.
+ * <p>
+ * At startup the binary model compiled by {@link ModelCompiler} is memory-mapped
+ * if it exists next to the PMML file and was compiled from exactly that file;
+ * otherwise the PMML file is parsed by the JPMML evaluator.
+ * <p>
+ * The loaded model sits behind a volatile reference, so a new model can be loaded
+ * with {@link #reload(InputStream)} while requests keep scoring against the old one.
  */
 public class TodoModel {
     private static final Logger LOG = LoggerFactory.getLogger(TodoModel.class);
-    private Evaluator evaluator;
+
+    // typical titles used to validate and warm up a freshly loaded model before it goes live
+    static final List<String> WARM_UP_CORPUS = List.of(
+        "set deadline", "team meeting", "project review", "sales presentation", "budget planning",
+        "buy groceries", "dentist appointment", "car maintenance", "family dinner", "weekend getaway");
+    private static final int WARM_UP_ROUNDS = 50;
+
+    private final String pathname;
+    private volatile LoadedModel model;
+
+    /**
+     * Either the PMML evaluator or the compiled model, swapped as one reference.
+     */
+    private record LoadedModel(Evaluator evaluator, CompiledTodoModel compiled) {
+    }
 
     /**
      * Constructs a TodoModel with the specified PMML model file path.
      *
-     * @param pathname The path to the PMML model file.
+     * @param pathname The path to the PMML model file. If no such file exists, the
+     *                 path is resolved as a classpath resource.
      */
     public TodoModel(String pathname) {
-        loadModel();
+        this(pathname, true);
+    }
+
+    private TodoModel(String pathname, boolean load) {
+        this.pathname = pathname;
+        if (load) {
+            loadModel();
+        }
     }
 
     /**
-     * Loads the PMML model from the specified file path and initializes the model
-     * evaluator.
-     * If the loading process encounters any exceptions, the evaluator is set to
-     * null.
+     * Creates a model from a PMML document, bypassing the compiled model.
+     *
+     * @param in The PMML document.
+     * @return The model.
+     * @throws IllegalArgumentException If the document is not a valid model.
      */
-    public void loadModel() {
-        // Building a model evaluator from a PMML file
-        try {
-            this.evaluator = new LoadingModelEvaluatorBuilder()
-                .load(getClass().getClassLoader().getResourceAsStream("model.pmml"))
-                .build();
-        } catch (ParserConfigurationException | SAXException | JAXBException e) {
-            LOG.error("Could not load AI model:", e);
-            this.evaluator = null;
+    static TodoModel fromPmml(InputStream in) {
+        TodoModel todoModel = new TodoModel("<pmml>", false);
+        if (!todoModel.reload(in)) {
+            throw new IllegalArgumentException("Invalid PMML model");
         }
+        return todoModel;
     }
 
     /**
-     * Parses the model's output to retrieve the predicted class/category.
+     * Loads the model from the specified file path, preferring an up-to-date
+     * compiled model over parsing the PMML file.
+     * If the loading process encounters any exceptions, the current model is kept
+     * (which is null if no model has been loaded before).
      *
-     * @param results The results obtained from evaluating the model on input data.
-     * @return The predicted class/category based on the model's output.
+     * @return Whether the model was loaded; if not, the previous model is kept.
      */
-    private String parseModelOutput(Map<String, ?> results) {
-
-        for (Object value : results.values()) {
-
-            if (value instanceof org.jpmml.evaluator.ProbabilityDistribution pd) {
+    public boolean loadModel() {
+        byte[] pmml;
+        try (InputStream in = openModel(pathname)) {
+            pmml = in.readAllBytes();
+        } catch (IOException e) {
+            LOG.error("Could not load AI model:", e);
+            return false;
+        }
+        return loadCompiledModel(pmml) || reload(new ByteArrayInputStream(pmml));
+    }
 
-                int index = ((Number) pd.getResult()).intValue();
+    /**
+     * Parses, validates and warms up a model and then swaps it in atomically.
+     * In-flight predictions finish on the model they started with.
+     *
+     * @param in The PMML document.
+     * @return Whether the new model is live; if not, the previous model is kept.
+     */
+    public boolean reload(InputStream in) {
+        ModelLoadEvent event = new ModelLoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            // Building a model evaluator from a PMML file
+            Evaluator candidate = new LoadingModelEvaluatorBuilder()
+                .load(in)
+                .build();
+            candidate.verify();
+            warmUp(candidate);
+            this.model = new LoadedModel(candidate, null);
+            LOG.info("AI model loaded from {} in {} ms", pathname, (System.nanoTime() - start) / 1_000_000);
+            event.succeeded = true;
+            return true;
+        } catch (Exception e) {
+            LOG.error("Could not load AI model, keeping the current one:", e);
+            return false;
+        } finally {
+            commit(event, pathname, false);
+        }
+    }
 
-                TargetField targetField = evaluator.getTargetFields().get(0);
-                List<?> values = targetField.getField().getValues();
+    /**
+     * @return Whether a model is loaded.
+     */
+    public boolean isLoaded() {
+        return model != null;
+    }
 
-                if (index >= 0 && index < values.size()) {
-                    return values.get(index).toString();
-                }
-            }
-        }
+    /**
+     * @return Whether the live model is the compiled binary model.
+     */
+    public boolean isCompiled() {
+        LoadedModel current = model;
+        return current != null && current.compiled() != null;
+    }
 
-        LOG.warn("No ProbabilityDistribution found, returning GENERAL");
-        return "GENERAL";
+    /**
+     * @return The path the model was configured with.
+     */
+    public String getPathname() {
+        return pathname;
     }
 
     /**
      * Predicts the class/category of a given input text.
      *
-     * @param inputString The input text to be classified.
+     * @param inputText The input text to be classified.
      * @return The predicted class/category for the input text.
      */
     public String predictClass(String inputText) {
+        ClassificationEvent event = new ClassificationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String category = null;
+        try {
+            category = predict(inputText);
+            return category;
+        } finally {
+            RequestTrace.recordModel(System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.compiled = isCompiled();
+                event.inputLength = inputText == null ? 0 : inputText.length();
+                event.category = category;
+                event.commit();
+            }
+        }
+    }
 
-        if (evaluator == null) {
+    private String predict(String inputText) {
+        // read the reference once so a concurrent reload cannot switch models mid-request
+        LoadedModel current = model;
+        if (current == null) {
             LOG.warn("Model not loaded, returning GENERAL");
             return "GENERAL";
         }
+        if (current.compiled() != null) {
+            return mapIndexToLabel(current.compiled().predict(inputText));
+        }
+        Evaluator evaluator = current.evaluator();
 
-        Map<String, Object> input = new HashMap<>();
-        input.put("text", inputText);
-
-        Map<String, ?> results = evaluator.evaluate(input);
+        Map<String, ?> results = evaluate(evaluator, inputText);
 
         // 🔍 DEBUG – DAS IST WICHTIG
         LOG.info("PMML RESULTS: " + results);
@@ -112,8 +213,107 @@ public class TodoModel {
         return mapIndexToLabel(targetValue);
     }
 
+    private static Map<String, ?> evaluate(Evaluator evaluator, String inputText) {
+        Map<String, Object> input = new HashMap<>();
+        input.put("text", inputText);
+        return evaluator.evaluate(input);
+    }
+
+    /**
+     * Checks that the model has the expected input and target and runs it over the
+     * warm-up corpus so the first real requests do not pay for lazy initialization.
+     */
+    private static void warmUp(Evaluator candidate) {
+        List<InputField> inputFields = candidate.getInputFields();
+        if (inputFields.size() != 1 || !"text".equals(inputFields.get(0).getName())) {
+            throw new IllegalArgumentException("Model must have exactly one input field 'text'");
+        }
+        List<TargetField> targetFields = candidate.getTargetFields();
+        if (targetFields.size() != 1) {
+            throw new IllegalArgumentException("Model must have exactly one target field");
+        }
+        String targetName = targetFields.get(0).getName();
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            for (String text : WARM_UP_CORPUS) {
+                if (evaluate(candidate, text).get(targetName) == null) {
+                    throw new IllegalArgumentException("Model returned no prediction for '" + text + "'");
+                }
+            }
+        }
+    }
+
+    private boolean loadCompiledModel(byte[] pmml) {
+        ModelLoadEvent event = new ModelLoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String binaryPathname = (pathname.endsWith(".pmml")
+            ? pathname.substring(0, pathname.length() - ".pmml".length()) : pathname) + ".bin";
+        try {
+            ByteBuffer buffer = mapModel(binaryPathname);
+            if (buffer == null) {
+                return false;
+            }
+            CompiledTodoModel compiled = CompiledTodoModel.read(buffer);
+            CRC32C checksum = new CRC32C();
+            checksum.update(pmml);
+            if (compiled.getSourceChecksum() != checksum.getValue()) {
+                LOG.warn("Compiled AI model {} is out of date, loading {} instead", binaryPathname, pathname);
+                return false;
+            }
+            this.model = new LoadedModel(null, compiled);
+            LOG.info("Compiled AI model loaded from {} in {} µs", binaryPathname, (System.nanoTime() - start) / 1_000);
+            event.succeeded = true;
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.warn("Could not load compiled AI model " + binaryPathname + ", loading " + pathname + " instead:", e);
+            return false;
+        } finally {
+            commit(event, binaryPathname, true);
+        }
+    }
 
-    private String mapIndexToLabel(Object value) {
+    private static void commit(ModelLoadEvent event, String path, boolean compiled) {
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.compiled = compiled;
+            event.commit();
+        }
+    }
+
+    private ByteBuffer mapModel(String binaryPathname) throws IOException {
+        Path path = Path.of(binaryPathname);
+        if (Files.isRegularFile(path)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        // resources inside the application jar cannot be mapped, but the file is only a few kilobytes
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(binaryPathname)) {
+            return in == null ? null : ByteBuffer.wrap(in.readAllBytes());
+        }
+    }
+
+    private InputStream openModel(String pathname) throws IOException {
+        Path path = Path.of(pathname);
+        if (Files.isRegularFile(path)) {
+            return Files.newInputStream(path);
+        }
+        InputStream in = getClass().getClassLoader().getResourceAsStream(pathname);
+        if (in == null) {
+            throw new IOException("Model not found: " + pathname);
+        }
+        return in;
+    }
+
+    static String mapIndexToLabel(int index) {
+        return switch (index) {
+            case 0 -> "private";
+            case 1 -> "work";
+            default -> "general";
+        };
+    }
+
+    static String mapIndexToLabel(Object value) {
 
         if (value == null) {
             return "GENERAL";
@@ -126,17 +326,13 @@ public class TodoModel {
             return value.toString().toUpperCase();
         }
 
-        return switch (index) {
-            case 0 -> "private";
-            case 1 -> "work";
-            default -> "general";
-        };
+        return mapIndexToLabel(index);
     }
 
     /**
      * Unloads the loaded PMML model, releasing resources.
      */
     public void unloadModel() {
-        this.evaluator = null;
+        this.model = null;
     }
 }
@@ -0,0 +1,114 @@
+package de.unistuttgart.iste.ese.api.Trace;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timings of the request running on the current thread, collected by
+ * {@link RequestTraceFilter}: the SQL statements, the classification model and
+ * the serialization of the response body. Outside of a traced request all
+ * {@code record*} methods do nothing.
+ * <p>
+ * A trace is only touched by the thread of its request, so it needs no
+ * synchronization. At most {@code maxStatements} statements are kept with their
+ * SQL; further statements are only added to the totals.
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final int maxStatements;
+    private final List<SlowRequest.Statement> statements = new ArrayList<>();
+    private int statementCount;
+    private long sqlNanos;
+    private long statementStart;
+    private int modelCalls;
+    private long modelNanos;
+    private long serializationStart;
+
+    RequestTrace(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    /**
+     * @return The trace of the current request, or null if the thread does not serve a traced request.
+     */
+    static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    static void begin(RequestTrace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Marks the start of a JDBC statement on the current thread.
+     */
+    static void recordStatementStart() {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.statementStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Ends the statement started by {@link #recordStatementStart()}.
+     *
+     * @param sql The SQL with placeholders, never the parameter values.
+     */
+    static void recordStatementEnd(String sql) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null && trace.statementStart != 0) {
+            long nanos = System.nanoTime() - trace.statementStart;
+            trace.statementStart = 0;
+            trace.statementCount++;
+            trace.sqlNanos += nanos;
+            if (trace.statements.size() < trace.maxStatements) {
+                trace.statements.add(new SlowRequest.Statement(sql, nanos / 1_000));
+            }
+        }
+    }
+
+    /**
+     * Adds one evaluation of the classification model to the current request.
+     *
+     * @param nanos The time the evaluation took.
+     */
+    public static void recordModel(long nanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.modelCalls++;
+            trace.modelNanos += nanos;
+        }
+    }
+
+    /**
+     * Marks the start of writing the response body of the current request.
+     */
+    static void recordSerializationStart() {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null && trace.serializationStart == 0) {
+            trace.serializationStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * @param method   The HTTP method.
+     * @param path     The request path without query string.
+     * @param status   The response status.
+     * @param start    When the request started.
+     * @param endNanos {@link System#nanoTime()} at the end of the request.
+     * @param nanos    The duration of the whole request.
+     * @return The collected timings.
+     */
+    SlowRequest toSlowRequest(String method, String path, int status, Instant start, long endNanos, long nanos) {
+        long serializationNanos = serializationStart == 0 ? 0 : endNanos - serializationStart;
+        return new SlowRequest(method, path, status, start, nanos / 1_000, statementCount, sqlNanos / 1_000,
+            modelCalls, modelNanos / 1_000, serializationNanos / 1_000, List.copyOf(statements));
+    }
+}
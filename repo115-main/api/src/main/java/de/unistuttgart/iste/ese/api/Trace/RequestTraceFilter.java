@@ -0,0 +1,60 @@
+package de.unistuttgart.iste.ese.api.Trace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Traces every API request (see {@link RequestTrace}) and hands the slow ones to
+ * the {@link SlowRequestLog}. The trace of a fast request is dropped without
+ * being copied. Actuator requests are not traced, so monitoring scrapes do not
+ * show up between the slow requests.
+ */
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    private final SlowRequestLog slowRequestLog;
+    private final int maxStatements;
+
+    /**
+     * @param slowRequestLog Where slow requests are kept.
+     * @param maxStatements  How many statements per request are kept with their SQL.
+     */
+    public RequestTraceFilter(SlowRequestLog slowRequestLog, int maxStatements) {
+        this.slowRequestLog = slowRequestLog;
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return path(request).startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        RequestTrace trace = new RequestTrace(maxStatements);
+        long startNanos = System.nanoTime();
+        RequestTrace.begin(trace);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestTrace.end();
+            long endNanos = System.nanoTime();
+            long nanos = endNanos - startNanos;
+            if (slowRequestLog.isRetained(nanos / 1_000)) {
+                Instant start = Instant.now().minusNanos(nanos);
+                slowRequestLog.offer(trace.toSlowRequest(request.getMethod(), path(request), response.getStatus(),
+                    start, endNanos, nanos));
+            }
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
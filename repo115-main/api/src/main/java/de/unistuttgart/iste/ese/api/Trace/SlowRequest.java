@@ -0,0 +1,20 @@
+package de.unistuttgart.iste.ese.api.Trace;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A finished request as kept in the {@link SlowRequestLog}. All durations are
+ * in microseconds; {@code statements} holds the first statements of the request,
+ * {@code statementCount} and {@code sqlMicros} cover all of them.
+ */
+public record SlowRequest(String method, String path, int status, Instant startedAt, long totalMicros,
+                          int statementCount, long sqlMicros, int modelCalls, long modelMicros,
+                          long serializationMicros, List<Statement> statements) {
+
+    /**
+     * One JDBC statement (a batch counts as one).
+     */
+    public record Statement(String sql, long micros) {
+    }
+}
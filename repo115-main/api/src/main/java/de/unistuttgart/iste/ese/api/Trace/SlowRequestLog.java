@@ -0,0 +1,108 @@
+package de.unistuttgart.iste.ese.api.Trace;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded memory of slow requests: the slowest requests since the start (or the
+ * last {@link #clear()}) and, in a ring buffer, the latest requests that took
+ * longer than the threshold.
+ * <p>
+ * {@link #isRetained(long)} is checked without a lock, so the fast requests that
+ * make up almost all of the traffic cost one volatile read and no allocation.
+ */
+public class SlowRequestLog {
+
+    private static final Comparator<SlowRequest> BY_DURATION = Comparator.comparingLong(SlowRequest::totalMicros);
+
+    private final long thresholdMicros;
+    private final int slowestCapacity;
+    private final SlowRequest[] recent;
+
+    // the fastest of the slowest requests is at the head
+    private final PriorityQueue<SlowRequest> slowest;
+    // duration of the head of slowest once it is full; shorter requests are not retained
+    private volatile long slowestFloorMicros = -1;
+    private int nextRecent;
+    private int recentCount;
+
+    /**
+     * @param threshold       Requests taking longer go into the ring buffer.
+     * @param slowestCapacity How many of the slowest requests are kept.
+     * @param recentCapacity  How many requests over the threshold are kept.
+     */
+    public SlowRequestLog(Duration threshold, int slowestCapacity, int recentCapacity) {
+        if (slowestCapacity < 1 || recentCapacity < 1) {
+            throw new IllegalArgumentException("Capacities must be positive");
+        }
+        this.thresholdMicros = threshold.toNanos() / 1_000;
+        this.slowestCapacity = slowestCapacity;
+        this.slowest = new PriorityQueue<>(slowestCapacity, BY_DURATION);
+        this.recent = new SlowRequest[recentCapacity];
+    }
+
+    /**
+     * @param micros The duration of a finished request.
+     * @return Whether a request of this duration would be kept, so its trace is worth building.
+     */
+    public boolean isRetained(long micros) {
+        return micros > thresholdMicros || micros > slowestFloorMicros;
+    }
+
+    /**
+     * Keeps the request if it is over the threshold or among the slowest ones.
+     */
+    public synchronized void offer(SlowRequest request) {
+        long micros = request.totalMicros();
+        if (micros > thresholdMicros) {
+            recent[nextRecent] = request;
+            nextRecent = (nextRecent + 1) % recent.length;
+            recentCount = Math.min(recentCount + 1, recent.length);
+        }
+        if (slowest.size() < slowestCapacity) {
+            slowest.add(request);
+        } else if (micros > slowest.peek().totalMicros()) {
+            slowest.poll();
+            slowest.add(request);
+        }
+        if (slowest.size() == slowestCapacity) {
+            slowestFloorMicros = slowest.peek().totalMicros();
+        }
+    }
+
+    /**
+     * @return The slowest requests, slowest first.
+     */
+    public synchronized List<SlowRequest> slowest() {
+        List<SlowRequest> requests = new ArrayList<>(slowest);
+        requests.sort(BY_DURATION.reversed());
+        return requests;
+    }
+
+    /**
+     * @return The latest requests over the threshold, newest first.
+     */
+    public synchronized List<SlowRequest> recent() {
+        List<SlowRequest> requests = new ArrayList<>(recentCount);
+        for (int i = 1; i <= recentCount; i++) {
+            requests.add(recent[Math.floorMod(nextRecent - i, recent.length)]);
+        }
+        return requests;
+    }
+
+    public synchronized void clear() {
+        slowest.clear();
+        slowestFloorMicros = -1;
+        Arrays.fill(recent, null);
+        nextRecent = 0;
+        recentCount = 0;
+    }
+
+    public Duration getThreshold() {
+        return Duration.ofNanos(thresholdMicros * 1_000);
+    }
+}
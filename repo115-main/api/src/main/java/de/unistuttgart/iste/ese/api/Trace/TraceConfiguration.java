@@ -0,0 +1,81 @@
+package de.unistuttgart.iste.ese.api.Trace;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Per-request traces of slow requests, shown by {@code GET /actuator/slowrequests}.
+ * The application data source is wrapped so statements are timed on the request
+ * thread; {@code todo.trace.threshold}, {@code todo.trace.slowest} and
+ * {@code todo.trace.capacity} size the {@link SlowRequestLog}. Disabled with
+ * {@code todo.trace.enabled=false}: then the filter is not registered and the data
+ * source is not wrapped. The flag is read when the beans are created, not with a
+ * condition, so it also works in the AOT-built startup image.
+ */
+@Configuration
+public class TraceConfiguration {
+
+    @Bean
+    public SlowRequestLog slowRequestLog(
+        @Value("${todo.trace.threshold:500ms}") Duration threshold,
+        @Value("${todo.trace.slowest:20}") int slowest,
+        @Value("${todo.trace.capacity:100}") int capacity) {
+        return new SlowRequestLog(threshold, slowest, capacity);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestTraceFilter> requestTraceFilter(
+        SlowRequestLog slowRequestLog,
+        @Value("${todo.trace.enabled:true}") boolean enabled,
+        @Value("${todo.trace.max-statements:50}") int maxStatements) {
+        FilterRegistrationBean<RequestTraceFilter> registration =
+            new FilterRegistrationBean<>(new RequestTraceFilter(slowRequestLog, maxStatements));
+        // right after the read-your-writes filter, so the trace covers rate limiting and idempotency replays
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    /**
+     * Wraps the {@code dataSource} bean only: with a read replica the pools behind
+     * it are data sources as well, and their statements would be timed twice.
+     * With tracing disabled statements don't go through the proxy at all.
+     */
+    @Bean
+    static BeanPostProcessor timingDataSourcePostProcessor(Environment environment) {
+        boolean enabled = environment.getProperty("todo.trace.enabled", Boolean.class, true);
+        QueryExecutionListener listener = new QueryExecutionListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                RequestTrace.recordStatementStart();
+            }
+
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                RequestTrace.recordStatementEnd(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery());
+            }
+        };
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return ProxyDataSourceBuilder.create("traced", dataSource).listener(listener).build();
+                }
+                return bean;
+            }
+        };
+    }
+}
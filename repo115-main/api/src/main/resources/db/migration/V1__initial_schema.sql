@@ -0,0 +1,59 @@
+-- Initial schema for MariaDB, matching the JPA entities (checked by ddl-auto=validate).
+-- Indexes follow the access patterns of the API:
+--   open todos by due date and archival scans (finished, due_date / finished_date),
+--   filtering by category and priority,
+--   todos of an assignee and assignees of a todo through the join table,
+--   purging expired idempotency keys.
+
+CREATE TABLE assignees (
+    id      BIGINT       NOT NULL AUTO_INCREMENT,
+    name    VARCHAR(100),
+    prename VARCHAR(100),
+    email   VARCHAR(254),
+    version BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE todos (
+    id            BIGINT        NOT NULL AUTO_INCREMENT,
+    title         VARCHAR(255),
+    description   VARCHAR(1000),
+    finished      BIT           NOT NULL DEFAULT 0,
+    priority      VARCHAR(8),
+    category      VARCHAR(16),
+    created_date  DATE,
+    due_date      DATE,
+    finished_date DATE,
+    version       BIGINT        NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE INDEX idx_todos_due_date ON todos (due_date);
+CREATE INDEX idx_todos_finished_due_date ON todos (finished, due_date);
+CREATE INDEX idx_todos_finished_finished_date ON todos (finished, finished_date);
+CREATE INDEX idx_todos_category ON todos (category);
+CREATE INDEX idx_todos_priority ON todos (priority);
+
+CREATE TABLE todo_assignee (
+    todo_id     BIGINT NOT NULL,
+    assignee_id BIGINT NOT NULL,
+    CONSTRAINT fk_todo_assignee_todo FOREIGN KEY (todo_id) REFERENCES todos (id),
+    CONSTRAINT fk_todo_assignee_assignee FOREIGN KEY (assignee_id) REFERENCES assignees (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- both directions are covering, so neither lookup touches the rows
+CREATE INDEX idx_todo_assignee_todo ON todo_assignee (todo_id, assignee_id);
+CREATE INDEX idx_todo_assignee_assignee ON todo_assignee (assignee_id, todo_id);
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint     VARCHAR(64)  NOT NULL,
+    status          INT,
+    content_type    VARCHAR(255),
+    etag            VARCHAR(64),
+    body            LONGBLOB,
+    expires_at      BIGINT       NOT NULL,
+    PRIMARY KEY (idempotency_key)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,29 @@
+-- Todos finished long ago, moved here by TodoArchiveService so todos only holds active work.
+-- Same columns as todos plus the archival date; ids are kept, so they are not generated.
+
+CREATE TABLE todos_archive (
+    id            BIGINT        NOT NULL,
+    title         VARCHAR(255),
+    description   VARCHAR(1000),
+    finished      BIT           NOT NULL DEFAULT 0,
+    priority      VARCHAR(8),
+    category      VARCHAR(16),
+    created_date  DATE,
+    due_date      DATE,
+    finished_date DATE,
+    version       BIGINT        NOT NULL DEFAULT 0,
+    archived_date DATE          NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE INDEX idx_todos_archive_finished_date ON todos_archive (finished_date);
+
+CREATE TABLE todo_assignee_archive (
+    todo_id     BIGINT NOT NULL,
+    assignee_id BIGINT NOT NULL,
+    CONSTRAINT fk_todo_assignee_archive_todo FOREIGN KEY (todo_id) REFERENCES todos_archive (id),
+    CONSTRAINT fk_todo_assignee_archive_assignee FOREIGN KEY (assignee_id) REFERENCES assignees (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE INDEX idx_todo_assignee_archive_todo ON todo_assignee_archive (todo_id, assignee_id);
+CREATE INDEX idx_todo_assignee_archive_assignee ON todo_assignee_archive (assignee_id, todo_id);
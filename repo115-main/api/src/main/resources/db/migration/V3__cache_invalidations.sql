@@ -0,0 +1,13 @@
+-- Change log of the JDBC cache invalidation bus (todo.invalidation.bus=jdbc): one row per changed
+-- entity, polled by all API nodes by id and purged after todo.invalidation.retention.
+
+CREATE TABLE cache_invalidations (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    topic      VARCHAR(32) NOT NULL,
+    entity_key BIGINT      NOT NULL,
+    origin     VARCHAR(36) NOT NULL,
+    created_at BIGINT      NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE INDEX idx_cache_invalidations_created_at ON cache_invalidations (created_at);
@@ -0,0 +1,16 @@
+-- Priority and category become TINYINT codes (Entities.Priority and Entities.Category) instead of free strings.
+-- Existing values are matched case-insensitively, so "GENERAL" and "general" end up as the same code;
+-- unknown or missing categories become GENERAL, like the API default. The indexes on the columns are kept
+-- and shrink to one byte per key.
+--   priority: 0 LOW, 1 MEDIUM, 2 HIGH
+--   category: 0 private, 1 work, 2 general
+
+UPDATE todos SET priority = CASE UPPER(priority) WHEN 'LOW' THEN '0' WHEN 'MEDIUM' THEN '1' WHEN 'HIGH' THEN '2' END;
+UPDATE todos SET category = CASE UPPER(category) WHEN 'PRIVATE' THEN '0' WHEN 'WORK' THEN '1' ELSE '2' END;
+ALTER TABLE todos MODIFY priority TINYINT;
+ALTER TABLE todos MODIFY category TINYINT;
+
+UPDATE todos_archive SET priority = CASE UPPER(priority) WHEN 'LOW' THEN '0' WHEN 'MEDIUM' THEN '1' WHEN 'HIGH' THEN '2' END;
+UPDATE todos_archive SET category = CASE UPPER(category) WHEN 'PRIVATE' THEN '0' WHEN 'WORK' THEN '1' ELSE '2' END;
+ALTER TABLE todos_archive MODIFY priority TINYINT;
+ALTER TABLE todos_archive MODIFY category TINYINT;
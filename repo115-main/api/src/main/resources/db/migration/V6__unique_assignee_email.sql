@@ -0,0 +1,12 @@
+-- Assignee emails are unique, ignoring case and surrounding blanks (Assignee.normalizeEmail). The unique index
+-- rejects a duplicate in the same INSERT or UPDATE that writes it, so no lookup is needed before a write.
+-- Of existing duplicates only the oldest assignee keeps its normalized email; the others stay NULL (not covered
+-- by the index) until they are cleaned up, and saving one of them with its email again is rejected.
+
+ALTER TABLE assignees ADD COLUMN email_normalized VARCHAR(254);
+
+UPDATE assignees SET email_normalized = LOWER(TRIM(email));
+UPDATE assignees SET email_normalized = NULL
+WHERE id NOT IN (SELECT keep_id FROM (SELECT MIN(id) AS keep_id FROM assignees GROUP BY email_normalized) AS oldest);
+
+CREATE UNIQUE INDEX uk_assignees_email_normalized ON assignees (email_normalized);
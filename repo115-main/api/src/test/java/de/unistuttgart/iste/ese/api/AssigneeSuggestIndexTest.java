@@ -0,0 +1,55 @@
+package de.unistuttgart.iste.ese.api;
+
+import de.unistuttgart.iste.ese.api.Entities.Assignee;
+import de.unistuttgart.iste.ese.api.Invalidation.InvalidationBus;
+import de.unistuttgart.iste.ese.api.Repositories.AssigneeRepository;
+import de.unistuttgart.iste.ese.api.Search.AssigneeSuggestIndex;
+import de.unistuttgart.iste.ese.api.Search.AssigneeSuggestion;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AssigneeSuggestIndexTest {
+
+    @Test
+    public void buildSortsAllKeysAndKeepsConcurrentWrites() {
+        AssigneeRepository repository = mock(AssigneeRepository.class);
+        AssigneeSuggestIndex index = new AssigneeSuggestIndex(repository, mock(PlatformTransactionManager.class),
+            mock(InvalidationBus.class));
+        when(repository.findAll()).thenReturn(List.of(
+            assignee(3, "Max", "Mustermann", "max@example.org"),
+            assignee(1, "Erika", "Mustermann", "erika@example.org"),
+            assignee(2, "Anna", "Schmidt", "anna.s@example.org")));
+        // assignee 2 was renamed and indexed by a write that committed while the build read the old name
+        index.index(new AssigneeSuggestion(2, "Anna", "Meier", "anna.m@example.org"));
+
+        index.build();
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(3L, 2L, 1L), ids(index.suggest("m", 10)));
+        assertEquals(List.of(1L, 3L), ids(index.suggest("mustermann", 10)));
+        assertEquals(List.of(), ids(index.suggest("schmidt", 10)));
+
+        // single writes still keep the keys sorted
+        index.index(new AssigneeSuggestion(4, "Mia", "Mustermann", "mia@example.org"));
+        index.remove(3);
+        assertEquals(List.of(2L, 4L, 1L), ids(index.suggest("m", 10)));
+    }
+
+    private static Assignee assignee(long id, String prename, String name, String email) {
+        Assignee assignee = new Assignee();
+        assignee.setId(id);
+        assignee.setPrename(prename);
+        assignee.setName(name);
+        assignee.setEmail(email);
+        return assignee;
+    }
+
+    private static List<Long> ids(List<AssigneeSuggestion> suggestions) {
+        return suggestions.stream().map(AssigneeSuggestion::id).toList();
+    }
+}
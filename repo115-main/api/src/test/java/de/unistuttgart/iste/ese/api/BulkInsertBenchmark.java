@@ -0,0 +1,118 @@
+package de.unistuttgart.iste.ese.api;
+
+import de.unistuttgart.iste.ese.api.Entities.Assignee;
+import de.unistuttgart.iste.ese.api.Entities.Category;
+import de.unistuttgart.iste.ese.api.Entities.Priority;
+import de.unistuttgart.iste.ese.api.Entities.ToDo;
+import de.unistuttgart.iste.ese.api.Repositories.AssigneeRepository;
+import de.unistuttgart.iste.ese.api.Repositories.ToDoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk-insert throughput of todos with two assignees each through the JPA
+ * repositories, {@value #TODOS_PER_TRANSACTION} todos per transaction. Prints
+ * todos per second and the JDBC statements Hibernate prepared per todo (a batch
+ * counts once). Not part of the test suite, run it with
+ * {@code scripts/bulk-insert-benchmark.sh}.
+ * <p>
+ * The schema is created by the Flyway migrations on an in-memory H2 database;
+ * pass e.g. {@code --spring.datasource.url=jdbc:mariadb://...} to measure
+ * against a real server, where the saved round trips matter most.
+ */
+public final class BulkInsertBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final int TRANSACTIONS_PER_ROUND = 20;
+    private static final int TODOS_PER_TRANSACTION = 500;
+    private static final int ASSIGNEES_PER_TRANSACTION = 50;
+
+    private BulkInsertBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.main.web-application-type", "none");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:bulk;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MariaDB;DATABASE_TO_LOWER=TRUE");
+        properties.put("spring.flyway.enabled", "true");
+        properties.put("spring.jpa.hibernate.ddl-auto", "validate");
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", "true");
+        properties.put("todo.archive.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.web", "WARN");
+        // command line arguments, so they take precedence over application.properties
+        for (String arg : args) {
+            String[] property = arg.replaceFirst("^--", "").split("=", 2);
+            properties.put(property[0], property.length > 1 ? property[1] : "");
+        }
+        String[] commandLine = properties.entrySet().stream()
+            .map(property -> "--" + property.getKey() + "=" + property.getValue())
+            .toArray(String[]::new);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+            .web(WebApplicationType.NONE)
+            .run(commandLine)) {
+            ToDoRepository toDoRepository = context.getBean(ToDoRepository.class);
+            AssigneeRepository assigneeRepository = context.getBean(AssigneeRepository.class);
+            TransactionTemplate transactionTemplate =
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            Statistics statistics = context.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class).getStatistics();
+
+            System.out.printf("%6s %12s %14s %16s%n", "round", "todos", "todos/s", "statements/todo");
+            for (int round = 1; round <= ROUNDS; round++) {
+                statistics.clear();
+                long start = System.nanoTime();
+                for (int i = 0; i < TRANSACTIONS_PER_ROUND; i++) {
+                    transactionTemplate.executeWithoutResult(
+                        status -> insertBatch(toDoRepository, assigneeRepository));
+                }
+                long nanos = System.nanoTime() - start;
+                int todos = TRANSACTIONS_PER_ROUND * TODOS_PER_TRANSACTION;
+                // the first round warms up the JIT and the connection pool
+                System.out.printf("%6s %12d %14.0f %16.2f%n", round == 1 ? "warmup" : String.valueOf(round - 1),
+                    todos, todos * 1e9 / nanos, (double) statistics.getPrepareStatementCount() / todos);
+            }
+        }
+    }
+
+    private static void insertBatch(ToDoRepository toDoRepository, AssigneeRepository assigneeRepository) {
+        List<Assignee> assignees = new ArrayList<>(ASSIGNEES_PER_TRANSACTION);
+        for (int i = 0; i < ASSIGNEES_PER_TRANSACTION; i++) {
+            Assignee assignee = new Assignee();
+            assignee.setPrename("Erika");
+            assignee.setName("Mustermann " + i);
+            assignee.setEmail("erika.mustermann" + i + "@uni-stuttgart.de");
+            assignees.add(assignee);
+        }
+        assigneeRepository.saveAll(assignees);
+
+        List<ToDo> todos = new ArrayList<>(TODOS_PER_TRANSACTION);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < TODOS_PER_TRANSACTION; i++) {
+            ToDo todo = new ToDo();
+            todo.setTitle("Todo " + i);
+            todo.setDescription("Generated by the bulk-insert benchmark");
+            todo.setPriority(Priority.MEDIUM);
+            todo.setCategory(Category.WORK);
+            todo.setCreatedDate(today);
+            todo.setDueDate(today.plusDays(i % 30));
+            todo.setAssigneeList(new ArrayList<>(List.of(
+                assignees.get(i % ASSIGNEES_PER_TRANSACTION), assignees.get((i + 1) % ASSIGNEES_PER_TRANSACTION))));
+            todos.add(todo);
+        }
+        toDoRepository.saveAll(todos);
+    }
+}
@@ -0,0 +1,73 @@
+package de.unistuttgart.iste.ese.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link TodoModel#predictClass(String)} with the bundled compiled
+ * model at 1, 8 and 64 concurrent callers. Not part of the test suite, run it
+ * with {@code scripts/classification-benchmark.sh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassificationBenchmark {
+
+    private static final int[] CALLERS = {1, 8, 64};
+
+    // typical todo titles: short, mixed case, some punctuation, words in and out of the vocabulary
+    private static final String[] TITLES = {
+        "Set deadline for the Q3 report", "Team meeting", "Buy groceries", "Dentist appointment at 9",
+        "Prepare sales presentation!", "Family dinner on Sunday", "Budget planning (draft)", "Car maintenance",
+        "Project review with the client", "Weekend getaway to the lake", "Call mom", "Fix login bug #421",
+        "Book flight to Hawaii for vacation", "Write unit tests", "Pay rent", "Quarterly roadmap, sales... report"};
+
+    private TodoModel model;
+
+    @State(Scope.Thread)
+    public static class Caller {
+        private int next;
+
+        String nextTitle() {
+            return TITLES[next++ & (TITLES.length - 1)];
+        }
+    }
+
+    @Setup
+    public void loadModel() {
+        model = new TodoModel("model.pmml");
+        if (!model.isCompiled()) {
+            throw new IllegalStateException("Compiled model not found, run mvn process-classes first");
+        }
+    }
+
+    @Benchmark
+    public String predictClass(Caller caller) {
+        return model.predictClass(caller.nextTitle());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int callers : CALLERS) {
+            new Runner(new OptionsBuilder()
+                .include(ClassificationBenchmark.class.getName())
+                .threads(callers)
+                .build()).run();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package de.unistuttgart.iste.ese.api;
+
+import de.unistuttgart.iste.ese.api.Search.TermTokenizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledTodoModelTest {
+
+    private static final List<String> TEXTS = List.of(
+        "set deadline", "Weltherrschaft", "", "Team Meeting!", "(budget) review, sales... report",
+        "Buy groceries", "car car car network", "Book flight to Hawaii for vacation", "DENTIST appointment?",
+        "project\tlaunch\nplanning", "family dinner party with the team",
+        // tokenizer edge cases: separators, punctuation on both ends, non-ASCII case mapping
+        "   deadline   ", "Deadline:\r\nset!!", "¿meeting?", "«budget» review", "team\u00A0meeting",
+        "İstanbul dinner", "car,car;car", "\"sales\" - report", "...", "DEADLINE DEADLINE family");
+
+    @Test
+    public void compiledModelPredictsLikePmmlEvaluator() throws Exception {
+        byte[] pmml = readBundledPmml();
+        TodoModel reference = TodoModel.fromPmml(new ByteArrayInputStream(pmml));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ModelCompiler.compile(pmml).write(out);
+        CompiledTodoModel compiled = CompiledTodoModel.read(ByteBuffer.wrap(out.toByteArray()));
+
+        assertEquals(38, compiled.getTermCount());
+        for (String text : TEXTS) {
+            assertEquals(reference.predictClass(text), TodoModel.mapIndexToLabel(compiled.predict(text)),
+                "Prediction differs for '" + text + "'");
+        }
+    }
+
+    @Test
+    public void scoringMatchesTermTokenizer() {
+        // powers of ten as weights, so the score spells out how often each term matched
+        String[] terms = {"deadline", "meeting", "budget", "car", "dinner", "istanbul"};
+        double[] idf = {1, 1, 1, 1, 1, 1};
+        double[] coefficients = {1, 10, 100, 1_000, 10_000, 100_000};
+        CompiledTodoModel model = new CompiledTodoModel(0, 1, 0, 0.0, terms, idf, coefficients);
+
+        for (String text : TEXTS) {
+            double expected = 0.0;
+            for (String token : TermTokenizer.tokenize(text)) {
+                int index = List.of(terms).indexOf(token);
+                expected += index < 0 ? 0.0 : coefficients[index];
+            }
+            assertEquals(expected, model.score(text), "Score differs for '" + text + "'");
+        }
+    }
+
+    @Test
+    public void bundledModelIsLoadedFromCompiledForm() {
+        TodoModel model = new TodoModel("model.pmml");
+        assertTrue(model.isCompiled());
+        assertEquals("work", model.predictClass("set deadline"));
+    }
+
+    @Test
+    public void outdatedCompiledModelFallsBackToPmml(@TempDir Path dir) throws Exception {
+        byte[] pmml = readBundledPmml();
+        Path modelFile = dir.resolve("model.pmml");
+        Files.write(modelFile, pmml);
+        // compiled from a different document than the one next to it
+        byte[] otherPmml = (new String(pmml, StandardCharsets.UTF_8) + "\n").getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = Files.newOutputStream(dir.resolve("model.bin"))) {
+            ModelCompiler.compile(otherPmml).write(out);
+        }
+
+        TodoModel model = new TodoModel(modelFile.toString());
+        assertTrue(model.isLoaded());
+        assertFalse(model.isCompiled());
+        assertEquals("work", model.predictClass("set deadline"));
+    }
+
+    @Test
+    public void corruptCompiledModelIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> CompiledTodoModel.read(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5, 6, 7, 8})));
+    }
+
+    private byte[] readBundledPmml() throws Exception {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("model.pmml")) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package de.unistuttgart.iste.ese.api;
+
+import de.unistuttgart.iste.ese.api.Idempotency.IdempotencyStore;
+import de.unistuttgart.iste.ese.api.Idempotency.IdempotencyStore.Status;
+import de.unistuttgart.iste.ese.api.Idempotency.InMemoryIdempotencyStore;
+import de.unistuttgart.iste.ese.api.Idempotency.JdbcIdempotencyStore;
+import de.unistuttgart.iste.ese.api.Idempotency.StoredResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "todo.idempotency.store=jdbc")
+@ActiveProfiles(profiles = "test")
+public class IdempotencyStoreTest {
+
+    private static final StoredResponse CREATED = new StoredResponse(201, "application/json", "\"0\"", new byte[] {'{', '}'});
+
+    @Autowired private DataSource dataSource;
+    @Autowired private IdempotencyStore configuredStore;
+
+    @Test
+    public void jdbcStoreIsConfigured() {
+        assertInstanceOf(JdbcIdempotencyStore.class, configuredStore);
+    }
+
+    @Test
+    public void jdbcStoreDeduplicatesAcrossNodes() throws Exception {
+        // two store instances on the same table behave like two API nodes
+        IdempotencyStore node1 = new JdbcIdempotencyStore(dataSource, Duration.ofHours(1), Duration.ofMinutes(1), Clock.systemUTC());
+        IdempotencyStore node2 = new JdbcIdempotencyStore(dataSource, Duration.ofHours(1), Duration.ofMinutes(1), Clock.systemUTC());
+        assertClaimWaitsAndReplays(node1, node2, "jdbc-1");
+
+        assertEquals(Status.MISMATCH, node2.claim("jdbc-1", "other", Duration.ZERO).status());
+        assertEquals(Status.ACQUIRED, node1.claim("jdbc-2", "fp", Duration.ZERO).status());
+        assertEquals(Status.IN_PROGRESS, node2.claim("jdbc-2", "fp", Duration.ofMillis(100)).status());
+        node1.release("jdbc-2");
+        assertEquals(Status.ACQUIRED, node2.claim("jdbc-2", "fp", Duration.ZERO).status());
+    }
+
+    @Test
+    public void jdbcClaimOfCrashedNodeRunsOut() throws Exception {
+        IdempotencyStore crashed = new JdbcIdempotencyStore(dataSource, Duration.ofHours(1), Duration.ofMillis(1),
+            Clock.fixed(Instant.now().minusSeconds(60), ZoneOffset.UTC));
+        IdempotencyStore node = new JdbcIdempotencyStore(dataSource, Duration.ofHours(1), Duration.ofMinutes(1), Clock.systemUTC());
+        assertEquals(Status.ACQUIRED, crashed.claim("jdbc-3", "fp", Duration.ZERO).status());
+        assertEquals(Status.ACQUIRED, node.claim("jdbc-3", "fp", Duration.ZERO).status());
+    }
+
+    @Test
+    public void memoryStoreDeduplicatesAndEvicts() throws Exception {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofHours(1), 2, Clock.systemUTC());
+        assertClaimWaitsAndReplays(store, store, "mem-1");
+
+        assertEquals(Status.ACQUIRED, store.claim("mem-2", "fp", Duration.ZERO).status());
+        store.complete("mem-2", CREATED);
+        // full: the oldest completed key is evicted
+        assertEquals(Status.ACQUIRED, store.claim("mem-3", "fp", Duration.ZERO).status());
+        assertEquals(2, store.size());
+        assertEquals(Status.ACQUIRED, store.claim("mem-1", "fp", Duration.ZERO).status());
+    }
+
+    @Test
+    public void memoryStoreExpiresEntries() throws Exception {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ZERO, 10, Clock.systemUTC());
+        assertEquals(Status.ACQUIRED, store.claim("mem-1", "fp", Duration.ZERO).status());
+        store.complete("mem-1", CREATED);
+        assertEquals(Status.ACQUIRED, store.claim("mem-1", "fp", Duration.ZERO).status());
+        assertEquals(1, store.size());
+    }
+
+    private static void assertClaimWaitsAndReplays(IdempotencyStore first, IdempotencyStore second, String key)
+        throws Exception {
+        assertEquals(Status.ACQUIRED, first.claim(key, "fp", Duration.ZERO).status());
+        CompletableFuture<IdempotencyStore.Outcome> retry = CompletableFuture.supplyAsync(() -> {
+            try {
+                return second.claim(key, "fp", Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(200);
+        assertFalse(retry.isDone(), "retry must wait for the first attempt");
+        first.complete(key, CREATED);
+        IdempotencyStore.Outcome outcome = retry.get();
+        assertEquals(Status.COMPLETED, outcome.status());
+        assertEquals(201, outcome.response().status());
+        assertArrayEquals(CREATED.body(), outcome.response().body());
+    }
+}
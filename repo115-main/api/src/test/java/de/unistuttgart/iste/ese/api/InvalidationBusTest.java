@@ -0,0 +1,105 @@
+package de.unistuttgart.iste.ese.api;
+
+import de.unistuttgart.iste.ese.api.Entities.ToDo;
+import de.unistuttgart.iste.ese.api.Invalidation.InvalidationBus;
+import de.unistuttgart.iste.ese.api.Search.TodoSearchIndex;
+import de.unistuttgart.iste.ese.api.Services.ToDoService;
+import de.unistuttgart.iste.ese.api.Snapshot.SnapshotCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application contexts on one H2 database stand in for two API nodes behind
+ * a load balancer, coupled only by the {@code cache_invalidations} table.
+ */
+public class InvalidationBusTest {
+
+    private static final String DATABASE = "jdbc:h2:mem:invalidation;DB_CLOSE_DELAY=-1";
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeEach
+    public void startNodes() {
+        nodeA = startNode("create");
+        nodeB = startNode("none");
+    }
+
+    @AfterEach
+    public void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    public void writesOnOneNodeInvalidateCachesOfTheOther() throws Exception {
+        SnapshotCache snapshotsB = nodeB.getBean(SnapshotCache.class);
+        assertArrayEquals(new byte[] {1}, snapshotsB.get("todos", () -> new byte[] {1}));
+
+        Map<String, Object> request = todoRequest("Quarterly roadmap");
+        ToDo todo = nodeA.getBean(ToDoService.class).createTodoWithAssignees(request);
+
+        awaitTrue(() -> snapshotsB.get("todos", () -> new byte[] {2})[0] == 2);
+        TodoSearchIndex searchB = nodeB.getBean(TodoSearchIndex.class);
+        awaitTrue(() -> searchB.search("roadmap", 10).contains(todo.getId()));
+
+        nodeA.getBean(ToDoService.class).deleteTodo(todo.getId());
+        awaitTrue(() -> searchB.search("roadmap", 10).isEmpty());
+    }
+
+    @Test
+    public void rolledBackWritesAreNotPublished() throws Exception {
+        SnapshotCache snapshotsB = nodeB.getBean(SnapshotCache.class);
+        snapshotsB.get("todos", () -> new byte[] {1});
+
+        new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            nodeA.getBean(InvalidationBus.class).publish(InvalidationBus.TODOS, 1);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, nodeA.getBean(JdbcTemplate.class).queryForObject("select count(*) from cache_invalidations", Long.class));
+        Thread.sleep(200);
+        assertArrayEquals(new byte[] {1}, snapshotsB.get("todos", () -> new byte[] {2}));
+    }
+
+    private static ConfigurableApplicationContext startNode(String ddlAuto) {
+        // command line arguments, so they take precedence over the test application.properties
+        return new SpringApplicationBuilder(Application.class)
+            .profiles("test")
+            .run("--spring.main.web-application-type=none",
+                "--spring.datasource.url=" + DATABASE,
+                "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                "--todo.invalidation.bus=jdbc",
+                "--todo.invalidation.poll-interval=50ms",
+                "--todo.snapshot.ttl=1h");
+    }
+
+    private static Map<String, Object> todoRequest(String title) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("title", title);
+        request.put("dueDate", LocalDate.now().plusDays(10).toString());
+        request.put("priority", "LOW");
+        return request;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 5 s");
+            Thread.sleep(20);
+        }
+    }
+}
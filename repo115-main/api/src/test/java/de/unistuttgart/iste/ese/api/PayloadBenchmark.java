@@ -0,0 +1,118 @@
+package de.unistuttgart.iste.ese.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import de.unistuttgart.iste.ese.api.Entities.Assignee;
+import de.unistuttgart.iste.ese.api.Entities.Category;
+import de.unistuttgart.iste.ese.api.Entities.Priority;
+import de.unistuttgart.iste.ese.api.Entities.ToDo;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload size and serialization CPU of the {@code GET /api/v1/todos} response
+ * body for the available encodings and several list sizes. Not part of the test
+ * suite, run it with {@code scripts/payload-benchmark.sh}.
+ */
+public final class PayloadBenchmark {
+
+    private static final int[] LIST_SIZES = {10, 100, 1_000, 10_000};
+    // roughly the same amount of serialized todos per measurement, independent of the list size
+    private static final int TODOS_PER_MEASUREMENT = 200_000;
+
+    // keeps the JIT from dropping the serialization
+    private static volatile long sink;
+
+    private PayloadBenchmark() {
+    }
+
+    private record Encoding(String name, ObjectMapper mapper, boolean gzip) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Encoding> encodings = List.of(
+            new Encoding("json (indented)", Jackson2ObjectMapperBuilder.json().indentOutput(true).build(), false),
+            new Encoding("json", Jackson2ObjectMapperBuilder.json().build(), false),
+            new Encoding("json + gzip", Jackson2ObjectMapperBuilder.json().build(), true),
+            new Encoding("smile", Jackson2ObjectMapperBuilder.smile().build(), false),
+            new Encoding("smile + gzip", Jackson2ObjectMapperBuilder.smile().build(), true),
+            new Encoding("cbor", Jackson2ObjectMapperBuilder.cbor().build(), false));
+        // same date handling as the application
+        encodings.forEach(encoding -> encoding.mapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+
+        System.out.printf("%8s  %-16s %12s %10s %12s%n", "todos", "encoding", "bytes", "vs json", "us/response");
+        for (int size : LIST_SIZES) {
+            List<ToDo> todos = createTodos(size);
+            int iterations = Math.max(10, TODOS_PER_MEASUREMENT / size);
+            long jsonBytes = serialize(encodings.get(1), todos).length;
+            for (Encoding encoding : encodings) {
+                long bytes = serialize(encoding, todos).length;
+                // warm-up, then measure
+                measure(encoding, todos, iterations);
+                double micros = measure(encoding, todos, iterations);
+                System.out.printf("%8d  %-16s %12d %9.0f%% %12.1f%n",
+                    size, encoding.name(), bytes, 100.0 * bytes / jsonBytes, micros);
+            }
+        }
+    }
+
+    private static double measure(Encoding encoding, List<ToDo> todos, int iterations) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += serialize(encoding, todos).length;
+        }
+        long elapsed = System.nanoTime() - start;
+        return elapsed / 1_000.0 / iterations;
+    }
+
+    private static byte[] serialize(Encoding encoding, List<ToDo> todos) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (encoding.gzip()) {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                encoding.mapper().writeValue(gzip, todos);
+            }
+        } else {
+            encoding.mapper().writeValue(out, todos);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<ToDo> createTodos(int count) {
+        List<Assignee> assignees = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Assignee assignee = new Assignee();
+            assignee.setId(i + 1);
+            assignee.setPrename("Prename" + i);
+            assignee.setName("Name" + i);
+            assignee.setEmail("prename" + i + ".name" + i + "@iste.uni-stuttgart.de");
+            assignees.add(assignee);
+        }
+        Priority[] priorities = Priority.values();
+        Category[] categories = Category.values();
+        LocalDate today = LocalDate.of(2025, 1, 1);
+        List<ToDo> todos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ToDo todo = new ToDo();
+            todo.setId(i + 1);
+            todo.setTitle("Todo number " + i);
+            todo.setDescription("Description of todo " + i + " with a few more words to make it realistic");
+            todo.setPriority(priorities[i % 3]);
+            todo.setCategory(categories[i % 3]);
+            todo.setFinished(i % 4 == 0);
+            todo.setCreatedDate(today);
+            todo.setDueDate(today.plusDays(i % 60));
+            todo.setFinishedDate(i % 4 == 0 ? today.plusDays(1) : null);
+            todo.setAssigneeList(List.of(assignees.get(i % 20), assignees.get((i + 7) % 20)));
+            todos.add(todo);
+        }
+        return todos;
+    }
+}
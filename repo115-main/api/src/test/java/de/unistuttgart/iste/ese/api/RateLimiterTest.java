@@ -0,0 +1,92 @@
+package de.unistuttgart.iste.ese.api;
+
+import de.unistuttgart.iste.ese.api.RateLimit.EndpointClass;
+import de.unistuttgart.iste.ese.api.RateLimit.RateLimitFilter;
+import de.unistuttgart.iste.ese.api.RateLimit.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void burstThenSustainedRate() {
+        AtomicLong clock = new AtomicLong(0);
+        RateLimiter limiter = new RateLimiter(2, 4, 100, clock::get);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, limiter.tryAcquire("a"));
+        }
+        assertEquals(SECOND / 2, limiter.tryAcquire("a"));
+
+        clock.addAndGet(SECOND / 2);
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+
+        // idle clients refill up to the capacity, not beyond
+        clock.addAndGet(60 * SECOND);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, limiter.tryAcquire("a"));
+        }
+        assertTrue(limiter.tryAcquire("a") > 0);
+    }
+
+    @Test
+    public void idleClientsAreDropped() {
+        AtomicLong clock = new AtomicLong(0);
+        RateLimiter limiter = new RateLimiter(1, 1, 16, clock::get);
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("client-" + i);
+            clock.addAndGet(SECOND);
+        }
+        assertTrue(limiter.trackedClients() <= 32, "tracked " + limiter.trackedClients());
+    }
+
+    @Test
+    public void concurrentClientsGetExactlyTheirCapacity() throws Exception {
+        RateLimiter limiter = new RateLimiter(0.001, 500, 100, () -> 0L);
+        AtomicLong admitted = new AtomicLong();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire("shared") == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(500, admitted.get());
+    }
+
+    @Test
+    public void disabledFilterLetsEveryRequestThrough() throws Exception {
+        Map<EndpointClass, RateLimiter> limiters = Map.of(EndpointClass.CRUD, new RateLimiter(0.001, 1, 100, () -> 0L));
+        RateLimitFilter disabled = new RateLimitFilter(false, limiters, new SimpleMeterRegistry());
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            disabled.doFilter(new MockHttpServletRequest("GET", "/api/v1/todos"), response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+
+        RateLimitFilter enabled = new RateLimitFilter(true, limiters, new SimpleMeterRegistry());
+        enabled.doFilter(new MockHttpServletRequest("GET", "/api/v1/todos"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        enabled.doFilter(new MockHttpServletRequest("GET", "/api/v1/todos"), rejected, new MockFilterChain());
+        assertEquals(429, rejected.getStatus());
+    }
+}
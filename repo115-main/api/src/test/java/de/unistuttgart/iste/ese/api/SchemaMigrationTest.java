@@ -0,0 +1,127 @@
+package de.unistuttgart.iste.ese.api;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations on an H2 database in MariaDB mode, lets Hibernate
+ * validate the entities against the result and checks that the key queries are
+ * answered from their indexes.
+ */
+@SpringBootTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.datasource.url=jdbc:h2:mem:migrations;DB_CLOSE_DELAY=-1;MODE=MariaDB;DATABASE_TO_LOWER=TRUE"})
+@ActiveProfiles(profiles = "test")
+public class SchemaMigrationTest {
+
+    @Autowired private Flyway flyway;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void migrationsAreApplied() {
+        assertEquals(0, flyway.info().pending().length);
+        assertNotNull(flyway.info().current());
+    }
+
+    @Test
+    public void idSequencesStartAboveExistingIds() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sequences;DB_CLOSE_DELAY=-1;MODE=MariaDB;DATABASE_TO_LOWER=TRUE");
+        Flyway.configure().dataSource(dataSource).target("3").load().migrate();
+        JdbcTemplate database = new JdbcTemplate(dataSource);
+        database.update("insert into todos (id, title) values (120, 'Open')");
+        database.update("insert into todos_archive (id, title, archived_date) values (130, 'Archived', current_date)");
+        database.update("insert into assignees (id, name) values (7, 'Doe')");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        // the pooled optimizer allocates the 50 ids up to and including the fetched value
+        assertEquals(180, database.queryForObject("select next value for todos_seq", Long.class));
+        assertEquals(230, database.queryForObject("select next value for todos_seq", Long.class));
+        assertEquals(57, database.queryForObject("select next value for assignees_seq", Long.class));
+    }
+
+    @Test
+    public void priorityAndCategoryStringsAreConvertedToCodes() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:codes;DB_CLOSE_DELAY=-1;MODE=MariaDB;DATABASE_TO_LOWER=TRUE");
+        Flyway.configure().dataSource(dataSource).target("4").load().migrate();
+        JdbcTemplate database = new JdbcTemplate(dataSource);
+        database.update("insert into todos (id, priority, category) values (1, 'HIGH', 'work'), (2, 'low', 'GENERAL'),"
+            + " (3, 'MEDIUM', 'Private'), (4, null, null)");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        assertEquals(List.of("2:1", "0:2", "1:0", "null:2"), database.queryForList(
+            "select concat(coalesce(cast(priority as varchar), 'null'), ':', category) from todos order by id", String.class));
+    }
+
+    @Test
+    public void duplicateEmailsKeepOnlyTheOldestNormalized() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:emails;DB_CLOSE_DELAY=-1;MODE=MariaDB;DATABASE_TO_LOWER=TRUE");
+        Flyway.configure().dataSource(dataSource).target("5").load().migrate();
+        JdbcTemplate database = new JdbcTemplate(dataSource);
+        database.update("insert into assignees (id, email) values (1, 'Max@uni-stuttgart.de'), (2, 'eve@uni-stuttgart.de'),"
+            + " (3, ' max@uni-stuttgart.de'), (4, null), (5, null)");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        assertEquals(List.of("max@uni-stuttgart.de", "eve@uni-stuttgart.de", "null", "null", "null"), database.queryForList(
+            "select coalesce(email_normalized, 'null') from assignees order by id", String.class));
+        assertThrows(DataIntegrityViolationException.class, () -> database.update(
+            "insert into assignees (id, email, email_normalized) values (6, 'eve@uni-stuttgart.de', 'eve@uni-stuttgart.de')"));
+    }
+
+    @Test
+    public void openTodosByDueDateUseIndex() {
+        assertUsesIndex("idx_todos_finished_due_date",
+            "select id from todos where finished = false and due_date < date '2030-01-01' order by due_date");
+    }
+
+    @Test
+    public void finishedTodosByFinishedDateUseIndex() {
+        assertUsesIndex("idx_todos_finished_finished_date",
+            "select id from todos where finished = true and finished_date < date '2030-01-01'");
+    }
+
+    @Test
+    public void categoryAndPriorityFiltersUseIndex() {
+        assertUsesIndex("idx_todos_category", "select id from todos where category = 1");
+        assertUsesIndex("idx_todos_priority", "select id from todos where priority = 2");
+    }
+
+    @Test
+    public void joinTableLookupsUseIndex() {
+        // unassigning a deleted assignee and the todos of an assignee
+        assertUsesIndex("idx_todo_assignee_assignee",
+            "select todo_id from todo_assignee where assignee_id = 1 order by todo_id");
+        assertUsesIndex("idx_todo_assignee_todo",
+            "select assignee_id from todo_assignee where todo_id = 1");
+        // removing a deleted assignee from archived todos
+        assertUsesIndex("idx_todo_assignee_archive_assignee",
+            "select todo_id from todo_assignee_archive where assignee_id = 1");
+    }
+
+    @Test
+    public void idempotencyPurgeUsesIndex() {
+        assertUsesIndex("idx_idempotency_keys_expires_at",
+            "select idempotency_key from idempotency_keys where expires_at <= 1000");
+    }
+
+    private void assertUsesIndex(String index, String query) {
+        String plan = jdbcTemplate.queryForObject("explain " + query, String.class);
+        assertTrue(plan.toLowerCase().contains(index), "Expected " + index + " in plan:\n" + plan);
+    }
+}
@@ -0,0 +1,92 @@
+package de.unistuttgart.iste.ese.api;
+
+import de.unistuttgart.iste.ese.api.Invalidation.LocalInvalidationBus;
+import de.unistuttgart.iste.ese.api.Search.TodoSearchIndex;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Query latency of {@link TodoSearchIndex#search(String, int)} over
+ * {@value #TODOS} generated todos. The words of titles and descriptions follow a
+ * Zipf distribution, like natural text, so the most common terms occur in most
+ * todos and the rare ones in a handful. Prints p50 and p99 per query for the top
+ * {@value #LIMIT} hits. Not part of the test suite, run it with
+ * {@code scripts/search-benchmark.sh}.
+ */
+public final class SearchIndexBenchmark {
+
+    private static final int TODOS = 1_000_000;
+    private static final int VOCABULARY = 20_000;
+    private static final int LIMIT = 20;
+    private static final int WARMUP = 2_000;
+    private static final int QUERIES = 2_000;
+
+    // words by rank: rank 0 occurs in most todos, rank 5000 in about a hundred
+    private static final String[][] QUERIES_BY_NAME = {
+        {"most common term", word(0)},
+        {"common term", word(10)},
+        {"rare term", word(5_000)},
+        {"two common terms", word(0) + " " + word(1)},
+        {"common and rare", word(10) + " " + word(5_000)},
+        {"three terms", word(3) + " " + word(50) + " " + word(500)},
+        {"unknown term", "zzz"}};
+
+    private SearchIndexBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        TodoSearchIndex index = new TodoSearchIndex(null, null, new LocalInvalidationBus());
+        Random random = new Random(42);
+        double[] cumulative = zipf(VOCABULARY);
+
+        long start = System.nanoTime();
+        for (long id = 1; id <= TODOS; id++) {
+            index.index(id, text(random, cumulative, 2 + random.nextInt(5)), text(random, cumulative, random.nextInt(13)));
+        }
+        System.out.printf("indexed %d todos in %d ms%n%n", index.size(), (System.nanoTime() - start) / 1_000_000);
+
+        System.out.printf("%-18s %-24s %10s %10s %6s%n", "query", "terms", "p50 (us)", "p99 (us)", "hits");
+        for (String[] query : QUERIES_BY_NAME) {
+            for (int i = 0; i < WARMUP; i++) {
+                index.search(query[1], LIMIT);
+            }
+            long[] nanos = new long[QUERIES];
+            int hits = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                long queryStart = System.nanoTime();
+                hits = index.search(query[1], LIMIT).size();
+                nanos[i] = System.nanoTime() - queryStart;
+            }
+            Arrays.sort(nanos);
+            System.out.printf("%-18s %-24s %10.1f %10.1f %6d%n", query[0], query[1],
+                nanos[QUERIES / 2] / 1e3, nanos[QUERIES * 99 / 100] / 1e3, hits);
+        }
+    }
+
+    private static String word(int rank) {
+        return "w" + rank;
+    }
+
+    private static double[] zipf(int size) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1.0 / (rank + 1);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static String text(Random random, double[] cumulative, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+            text.append(word(rank < 0 ? -rank - 1 : rank)).append(' ');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package de.unistuttgart.iste.ese.api;
+
+import de.unistuttgart.iste.ese.api.Trace.SlowRequest;
+import de.unistuttgart.iste.ese.api.Trace.SlowRequestLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlowRequestLogTest {
+
+    @Test
+    public void keepsTheSlowestRequests() {
+        SlowRequestLog log = new SlowRequestLog(Duration.ofSeconds(10), 3, 5);
+        for (long micros : new long[] {50, 10, 40, 30, 20, 60}) {
+            if (log.isRetained(micros)) {
+                log.offer(request(micros));
+            }
+        }
+
+        assertEquals(List.of(60L, 50L, 40L), durations(log.slowest()));
+        assertFalse(log.isRetained(40));
+        assertTrue(log.isRetained(41));
+        // none of them was over the threshold
+        assertEquals(List.of(), log.recent());
+    }
+
+    @Test
+    public void ringBufferKeepsTheLatestRequestsOverTheThreshold() {
+        SlowRequestLog log = new SlowRequestLog(Duration.ofNanos(100_000), 1, 3);
+        for (long micros : new long[] {101, 50, 300, 102, 103, 104}) {
+            if (log.isRetained(micros)) {
+                log.offer(request(micros));
+            }
+        }
+
+        assertEquals(List.of(104L, 103L, 102L), durations(log.recent()));
+        assertEquals(List.of(300L), durations(log.slowest()));
+        assertTrue(log.isRetained(101));
+
+        log.clear();
+        assertEquals(List.of(), log.recent());
+        assertEquals(List.of(), log.slowest());
+        assertTrue(log.isRetained(1));
+    }
+
+    private static SlowRequest request(long micros) {
+        return new SlowRequest("GET", "/todos", 200, Instant.EPOCH, micros, 0, 0, 0, 0, 0, List.of());
+    }
+
+    private static List<Long> durations(List<SlowRequest> requests) {
+        return requests.stream().map(SlowRequest::totalMicros).toList();
+    }
+}
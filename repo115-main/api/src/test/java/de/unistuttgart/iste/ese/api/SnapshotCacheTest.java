@@ -0,0 +1,74 @@
+package de.unistuttgart.iste.ese.api;
+
+import de.unistuttgart.iste.ese.api.Invalidation.LocalInvalidationBus;
+import de.unistuttgart.iste.ese.api.Snapshot.SnapshotCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotCacheTest {
+
+    @Test
+    public void concurrentMissesAreCoalesced() throws Exception {
+        SnapshotCache cache = new SnapshotCache(Duration.ofHours(1), new LocalInvalidationBus());
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> cache.get("todos", () -> {
+                    computations.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new byte[] {42};
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<byte[]> result : results) {
+                assertArrayEquals(new byte[] {42}, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    public void invalidationDropsSnapshotsAndOverlappingComputations() {
+        SnapshotCache cache = new SnapshotCache(Duration.ofHours(1), new LocalInvalidationBus());
+        assertArrayEquals(new byte[] {1}, cache.get("todos", () -> new byte[] {1}));
+        assertArrayEquals(new byte[] {1}, cache.get("todos", () -> new byte[] {2}));
+
+        cache.invalidate();
+        // a write commits while the snapshot is computed: the result must not be kept
+        assertArrayEquals(new byte[] {2}, cache.get("todos", () -> {
+            cache.invalidate();
+            return new byte[] {2};
+        }));
+        assertArrayEquals(new byte[] {3}, cache.get("todos", () -> new byte[] {3}));
+    }
+
+    @Test
+    public void failedComputationIsNotCached() {
+        SnapshotCache cache = new SnapshotCache(Duration.ofHours(1), new LocalInvalidationBus());
+        assertThrows(IllegalStateException.class, () -> cache.get("todos", () -> {
+            throw new IllegalStateException("database down");
+        }));
+        assertArrayEquals(new byte[] {1}, cache.get("todos", () -> new byte[] {1}));
+    }
+}
@@ -0,0 +1,106 @@
+package de.unistuttgart.iste.ese.api;
+
+import de.unistuttgart.iste.ese.api.Entities.ToDo;
+import de.unistuttgart.iste.ese.api.Services.PreconditionFailedException;
+import de.unistuttgart.iste.ese.api.Services.ToDoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Several clients edit the same todo at once: writers increment a counter kept in
+ * the description with read-modify-write under If-Match semantics (retrying on 412/409
+ * like a client would), finishers call finish without a precondition. No
+ * increment and no finish may get lost.
+ */
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class TodoConcurrencyStressTest {
+
+    // small enough to run in a few seconds, still enough for writers to run into each other
+    private static final int WRITERS = 4;
+    private static final int FINISHERS = 2;
+    private static final int UPDATES_PER_WRITER = 10;
+    private static final int FINISHES_PER_FINISHER = 10;
+
+    @Autowired private ToDoService toDoService;
+
+    @Test
+    public void concurrentUpdatesAreNotLost() throws Exception {
+        Map<String, Object> request = new HashMap<>();
+        request.put("title", "Shared todo");
+        request.put("description", "0");
+        request.put("priority", "LOW");
+        request.put("dueDate", LocalDate.now().plusDays(10).toString());
+        long id = toDoService.createTodoWithAssignees(request).getId();
+
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger finishConflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + FINISHERS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < UPDATES_PER_WRITER; i++) {
+                    while (true) {
+                        ToDo current = toDoService.getTodoById(id);
+                        String description = String.valueOf(Long.parseLong(current.getDescription()) + 1);
+                        try {
+                            toDoService.updateTodoWithAssignees(id, Map.of("description", description), Set.of(current.getVersion()));
+                            break;
+                        } catch (PreconditionFailedException | OptimisticLockingFailureException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int f = 0; f < FINISHERS; f++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < FINISHES_PER_FINISHER; i++) {
+                    try {
+                        assertNotNull(toDoService.markTodoAsFinished(id, null));
+                    } catch (OptimisticLockingFailureException e) {
+                        // retries exhausted: reported to the client as 409, not lost silently
+                        finishConflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertTrue(conflicts.get() > 0, "Writers never conflicted, the test does not exercise If-Match");
+        ToDo result = toDoService.getTodoById(id);
+        assertEquals(String.valueOf(WRITERS * UPDATES_PER_WRITER), result.getDescription(), "Updates were lost");
+        assertTrue(finishConflicts.get() < FINISHERS * FINISHES_PER_FINISHER, "No finish succeeded");
+        assertTrue(result.isFinished());
+        assertNotNull(result.getFinishedDate());
+    }
+}
@@ -0,0 +1,76 @@
+package de.unistuttgart.iste.ese.api;
+
+import de.unistuttgart.iste.ese.api.Services.ModelReloadService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TodoModelReloadTest {
+
+    @Test
+    public void failedReloadKeepsCurrentModel() {
+        TodoModel model = new TodoModel("model.pmml");
+        assertTrue(model.isLoaded());
+        assertEquals("work", model.predictClass("set deadline"));
+
+        boolean reloaded = model.reload(new ByteArrayInputStream("<PMML>broken".getBytes(StandardCharsets.UTF_8)));
+
+        assertFalse(reloaded);
+        assertTrue(model.isLoaded());
+        assertEquals("work", model.predictClass("set deadline"));
+    }
+
+    @Test
+    public void reloadSwapsInValidModel() throws Exception {
+        TodoModel model = new TodoModel("model.pmml");
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("model.pmml")) {
+            assertTrue(model.reload(in));
+        }
+        assertEquals("private", model.predictClass("family dinner"));
+    }
+
+    @Test
+    public void reloadServiceLoadsModelFile(@TempDir Path dir) throws Exception {
+        Path modelFile = dir.resolve("model.pmml");
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("model.pmml")) {
+            Files.copy(in, modelFile);
+        }
+        TodoModel model = new TodoModel(modelFile.toString());
+        ModelReloadService service = new ModelReloadService(model, modelFile.toString(), false);
+
+        assertTrue(service.reload().get());
+        assertTrue(service.isLastReloadSucceeded());
+
+        Files.writeString(modelFile, "not a model");
+        assertFalse(service.reload().get());
+        assertFalse(service.isLastReloadSucceeded());
+        assertNotNull(service.getLastError());
+        assertEquals("work", model.predictClass("set deadline"));
+    }
+
+    @Test
+    public void failedBundledReloadIsReported(@TempDir Path dir) throws Exception {
+        Path modelFile = dir.resolve("model.pmml");
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("model.pmml")) {
+            Files.copy(in, modelFile);
+        }
+        TodoModel model = new TodoModel(modelFile.toString());
+        // no external model file, so the service reloads the model the way it was loaded at startup
+        ModelReloadService service = new ModelReloadService(model, dir.resolve("missing.pmml").toString(), false);
+        assertTrue(service.reload().get());
+
+        Files.writeString(modelFile, "not a model");
+        assertFalse(service.reload().get());
+        assertFalse(service.isLastReloadSucceeded());
+        assertNotNull(service.getLastError());
+        assertTrue(model.isLoaded());
+        assertEquals("work", model.predictClass("set deadline"));
+    }
+}
@@ -0,0 +1,114 @@
+package de.unistuttgart.iste.ese.api;
+
+import de.unistuttgart.iste.ese.api.Invalidation.InvalidationBus;
+import de.unistuttgart.iste.ese.api.Repositories.ToDoRepository;
+import de.unistuttgart.iste.ese.api.Search.TermTokenizer;
+import de.unistuttgart.iste.ese.api.Search.TodoSearchIndex;
+import de.unistuttgart.iste.ese.api.Search.TodoText;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TodoSearchIndexTest {
+
+    @Test
+    public void buildSkipsTodosDeletedWhileItRuns() {
+        ToDoRepository repository = mock(ToDoRepository.class);
+        TodoSearchIndex index = new TodoSearchIndex(repository, mock(PlatformTransactionManager.class),
+            mock(InvalidationBus.class));
+        // todo 2 has already been read by the build when its delete commits
+        when(repository.streamAllTexts()).thenReturn(Stream.of(
+                new TodoText(1, "Walk dog", null), new TodoText(2, "Walk cat", null))
+            .peek(text -> {
+                if (text.id() == 1) {
+                    index.remove(2);
+                }
+            }));
+
+        index.build();
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(1L), index.search("walk", 10));
+
+        // once the build is done, removes are not remembered any more
+        index.index(3, "Walk bird", null);
+        index.remove(3);
+        index.index(3, "Walk bird", null);
+        assertEquals(List.of(1L, 3L), index.search("walk", 10));
+    }
+
+    @Test
+    public void searchRanksLikeScoringEveryTodo() {
+        TodoSearchIndex index = new TodoSearchIndex(null, null, mock(InvalidationBus.class));
+        Map<Long, List<String>> texts = new HashMap<>();
+        Random random = new Random(7);
+        for (long id = 1; id <= 20_000; id++) {
+            put(index, texts, id, random);
+        }
+        // updates, deletes and out of order inserts move postings between blocks
+        for (long id = 3; id <= 20_000; id += 7) {
+            put(index, texts, id, random);
+        }
+        for (long id = 5; id <= 20_000; id += 11) {
+            index.remove(id);
+            texts.remove(id);
+        }
+        for (long id = 30_000; id > 20_000; id -= 13) {
+            put(index, texts, id, random);
+        }
+
+        for (String query : List.of("w0", "w1", "w7", "w150", "w0 w1", "w0 w150", "w2 w20 w199", "w0 w1 w2 w3")) {
+            Map<Long, Double> scores = scoreEveryTodo(texts, query);
+            List<Long> ranked = new ArrayList<>(scores.keySet());
+            ranked.sort(Comparator.comparingDouble((Long id) -> scores.get(id)).reversed());
+            for (int limit : List.of(1, 10, 100)) {
+                List<Long> actual = index.search(query, limit);
+                // todos with the same score may come in any order: summing in another order
+                // can tell them apart in the last bit
+                assertEquals(Math.min(limit, ranked.size()), actual.size(), query);
+                for (int i = 0; i < actual.size(); i++) {
+                    assertEquals(scores.get(ranked.get(i)), scores.getOrDefault(actual.get(i), 0.0), 1e-9,
+                        query + " limit " + limit + " rank " + i);
+                }
+            }
+        }
+    }
+
+    private static void put(TodoSearchIndex index, Map<Long, List<String>> texts, long id, Random random) {
+        StringBuilder title = new StringBuilder();
+        for (int i = 1 + random.nextInt(8); i > 0; i--) {
+            // skewed like natural text: low ranks are common
+            title.append('w').append((int) (200 * Math.pow(random.nextDouble(), 3))).append(' ');
+        }
+        index.index(id, title.toString(), null);
+        texts.put(id, TermTokenizer.tokenize(title.toString()));
+    }
+
+    private static Map<Long, Double> scoreEveryTodo(Map<Long, List<String>> texts, String query) {
+        double averageLength = texts.values().stream().mapToInt(List::size).average().orElseThrow();
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : new LinkedHashSet<>(TermTokenizer.tokenize(query))) {
+            long df = texts.values().stream().filter(tokens -> tokens.contains(term)).count();
+            double idf = Math.log(1.0 + (texts.size() - df + 0.5) / (df + 0.5));
+            texts.forEach((id, tokens) -> {
+                long frequency = tokens.stream().filter(term::equals).count();
+                if (frequency > 0) {
+                    double norm = 1.2 * (1.0 - 0.75 + 0.75 * tokens.size() / averageLength);
+                    scores.merge(id, idf * frequency * 2.2 / (frequency + norm), Double::sum);
+                }
+            });
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,49 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "management.server.port=0")
+@ActiveProfiles(profiles = {"test", "admin"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Admin Endpoint Tests")
+public class AdminEndpointsTest {
+
+    @Autowired private TestRestTemplate restTemplate;
+    @LocalServerPort private int port;
+    @LocalManagementPort private int managementPort;
+
+    @Test
+    @DisplayName("the admin profile exposes jfr on the management port only")
+    public void jfrIsOnlyOnTheManagementPort() {
+        // an invalid duration is rejected before anything is recorded
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+            "http://localhost:" + managementPort + "/actuator/jfr?duration=1h", String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(
+            "http://localhost:" + port + "/actuator/jfr?duration=1h", String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(
+            "http://localhost:" + managementPort + "/actuator/health", String.class).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("the admin profile exposes model on the management port only")
+    public void modelIsOnlyOnTheManagementPort() {
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(
+            "http://localhost:" + managementPort + "/actuator/model", String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(
+            "http://localhost:" + port + "/actuator/model", String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.postForEntity(
+            "http://localhost:" + port + "/actuator/model", null, String.class).getStatusCode());
+    }
+}
@@ -1,5 +1,6 @@
 package de.unistuttgart.iste.ese.api.controller;
 
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -7,12 +8,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultMatcher;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,6 +34,9 @@ class AssigneeControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     @DisplayName("create a valid assignee (201)")
     public void createValidAssignee() throws Exception {
@@ -189,6 +195,96 @@ class AssigneeControllerTest {
         createAssignee(testAssignee, status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("an email that differs only in case and blanks is a duplicate (409)")
+    public void duplicateEmailConflicts() throws Exception {
+        JSONObject first = createAssigneeSuccessful(testAssigneeReq());
+
+        JSONObject duplicate = testAssigneeReq();
+        setEmail(duplicate, " " + getEmail(first).toUpperCase() + " ");
+        createAssignee(duplicate, status().isConflict());
+
+        JSONObject second = createAssigneeSuccessful(testAssigneeReq());
+        setEmail(second, getEmail(first));
+        mockMvc.perform(put("/api/v1/assignees/{id}", getId(second))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(second.toString()))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/api/v1/assignees"))
+                .andExpect(jsonPath("$.length()").value(2));
+        // changing the case of the own email is not a conflict
+        setEmail(first, getEmail(first).replaceFirst("^.", getEmail(first).substring(0, 1).toUpperCase()));
+        mockMvc.perform(put("/api/v1/assignees/{id}", getId(first))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(first.toString()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("todos of an assignee are returned page by page with their assignees")
+    public void todosOfAssigneeArePaged() throws Exception {
+        long assigneeId = getId(createAssigneeSuccessful(testAssigneeReq()));
+        long otherId = getId(createAssigneeSuccessful(testAssigneeReq()));
+        List<Long> todoIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            todoIds.add(createTodo(i == 0 ? new JSONArray().put(assigneeId).put(otherId) : new JSONArray().put(assigneeId)));
+        }
+        createTodo(new JSONArray().put(otherId));
+
+        mockMvc.perform(get("/api/v1/assignees/{id}/todos", assigneeId).param("page", "1").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(todoIds.get(2)))
+                .andExpect(jsonPath("$.content[1].id").value(todoIds.get(3)))
+                .andExpect(jsonPath("$.content[0].assigneeList[0].id").value(assigneeId))
+                .andExpect(jsonPath("$.page.totalElements").value(5))
+                .andExpect(jsonPath("$.page.totalPages").value(3));
+        mockMvc.perform(get("/api/v1/assignees/{id}/todos", assigneeId).param("page", "0"))
+                .andExpect(jsonPath("$.content[0].id").value(todoIds.get(0)))
+                .andExpect(jsonPath("$.content[0].assigneeList.length()").value(2));
+        mockMvc.perform(get("/api/v1/assignees/{id}/todos", assigneeId).param("page", "3").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0));
+        mockMvc.perform(get("/api/v1/assignees/{id}/todos", assigneeId).param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/assignees/{id}/todos", otherId + 1000))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("workload counts open, overdue and finished todos per assignee")
+    public void workloadCountsTodosPerAssignee() throws Exception {
+        long busyId = getId(createAssigneeSuccessful(testAssigneeReq()));
+        // without todos, so not part of the workload
+        createAssigneeSuccessful(testAssigneeReq());
+        createTodo(new JSONArray().put(busyId));
+        long overdueId = createTodo(new JSONArray().put(busyId));
+        long finishedId = createTodo(new JSONArray().put(busyId));
+        createTodo(new JSONArray());
+        // due dates in the past are rejected by the API
+        jdbcTemplate.update("update todos set due_date = ? where id = ?", LocalDate.now().minusDays(1), overdueId);
+        mockMvc.perform(put("/api/v1/todos/{id}/finish", finishedId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/assignees/workload"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].assigneeId").value(busyId))
+                .andExpect(jsonPath("$[0].open").value(2))
+                .andExpect(jsonPath("$[0].overdue").value(1))
+                .andExpect(jsonPath("$[0].finished").value(1));
+    }
+
+    private long createTodo(JSONArray assigneeIds) throws Exception {
+        JSONObject todo = testTodoReq();
+        setAssigneeIdList(todo, assigneeIds);
+        return getId(new JSONObject(mockMvc.perform(post("/api/v1/todos")
+                .contentType(MediaType.APPLICATION_JSON).content(todo.toString()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()));
+    }
+
     private JSONObject createAssignee(JSONObject testAssignee, ResultMatcher... resultMatchers) throws Exception {
         MockHttpServletResponse response = mockMvc
                 .perform(post("/api/v1/assignees").contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -0,0 +1,107 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import de.unistuttgart.iste.ese.api.Search.AssigneeSuggestIndex;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static de.unistuttgart.iste.ese.api.controller.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Assignee Suggest Tests")
+public class AssigneeSuggestTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private AssigneeSuggestIndex assigneeSuggestIndex;
+
+    @Test
+    @DisplayName("suggestions match prename, name and email local part by prefix, ignoring case")
+    public void suggestMatchesPrefixes() throws Exception {
+        long anna = createAssignee("Anna", "Schmidt", "st100001@stud.uni-stuttgart.de");
+        long andreas = createAssignee("Andreas", "Schneider", "andreas.schneider@iste.uni-stuttgart.de");
+        long bernd = createAssignee("Bernd", "Anders", "b.anders@uni-stuttgart.de");
+
+        mockMvc.perform(get("/api/v1/assignees/suggest").param("q", "AN"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3))
+            .andExpect(jsonPath("$[0].id").value(bernd))
+            .andExpect(jsonPath("$[1].id").value(andreas))
+            .andExpect(jsonPath("$[2].id").value(anna))
+            .andExpect(jsonPath("$[2].email").value("st100001@stud.uni-stuttgart.de"));
+
+        mockMvc.perform(get("/api/v1/assignees/suggest").param("q", "anna sch"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(anna));
+        mockMvc.perform(get("/api/v1/assignees/suggest").param("q", "st1000"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(anna));
+        mockMvc.perform(get("/api/v1/assignees/suggest").param("q", "sch"))
+            .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(get("/api/v1/assignees/suggest").param("q", "sch").param("limit", "1"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(anna));
+        // the domain is not indexed
+        mockMvc.perform(get("/api/v1/assignees/suggest").param("q", "uni"))
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("the index follows updates and deletes")
+    public void suggestFollowsWrites() throws Exception {
+        long id = createAssignee("Clara", "Wagner", "clara.wagner@uni-stuttgart.de");
+
+        JSONObject update = new JSONObject();
+        setPrename(update, "Clara");
+        setName(update, "Becker");
+        setEmail(update, "clara.becker@uni-stuttgart.de");
+        mockMvc.perform(put("/api/v1/assignees/{id}", id).contentType(MediaType.APPLICATION_JSON_VALUE).content(update.toString()))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/assignees/suggest").param("q", "wag"))
+            .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/v1/assignees/suggest").param("q", "beck"))
+            .andExpect(jsonPath("$[0].id").value(id))
+            .andExpect(jsonPath("$[0].name").value("Becker"));
+
+        mockMvc.perform(delete("/api/v1/assignees/{id}", id)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/assignees/suggest").param("q", "clara"))
+            .andExpect(jsonPath("$.length()").value(0));
+        assertEquals(0, assigneeSuggestIndex.size());
+    }
+
+    @Test
+    @DisplayName("validation: empty query or invalid limit fails (400)")
+    public void suggestValidation() throws Exception {
+        mockMvc.perform(get("/api/v1/assignees/suggest").param("q", " "))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/assignees/suggest").param("q", "an").param("limit", "51"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private long createAssignee(String prename, String name, String email) throws Exception {
+        JSONObject assignee = new JSONObject();
+        setPrename(assignee, prename);
+        setName(assignee, name);
+        setEmail(assignee, email);
+        MockHttpServletResponse response = mockMvc.perform(post("/api/v1/assignees").contentType(MediaType.APPLICATION_JSON_VALUE).content(assignee.toString()))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse();
+        return getId(new JSONObject(response.getContentAsString()));
+    }
+}
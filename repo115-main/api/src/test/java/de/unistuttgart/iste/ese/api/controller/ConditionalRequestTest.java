@@ -0,0 +1,108 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static de.unistuttgart.iste.ese.api.controller.TestUtil.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Conditional Request Tests")
+public class ConditionalRequestTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("todo updates with an outdated If-Match fail (412)")
+    public void todoUpdateWithIfMatch() throws Exception {
+        long id = getId(new JSONObject(mockMvc.perform(post("/api/v1/todos").contentType(MediaType.APPLICATION_JSON).content(testTodoReq().toString()))
+            .andExpect(status().isCreated())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andReturn().getResponse().getContentAsString()));
+
+        JSONObject update = new JSONObject();
+        setTitle(update, "Wash car");
+        setCategory(update, "private");
+        mockMvc.perform(put("/api/v1/todos/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON).content(update.toString()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.version").value(1));
+
+        // a second client still editing version 0
+        setTitle(update, "Walk dog");
+        mockMvc.perform(put("/api/v1/todos/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON).content(update.toString()))
+            .andExpect(status().isPreconditionFailed())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(put("/api/v1/todos/{id}/finish", id).header(HttpHeaders.IF_MATCH, "\"0\""))
+            .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/v1/todos/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.title").value("Wash car"))
+            .andExpect(jsonPath("$.finished").value(false));
+
+        mockMvc.perform(put("/api/v1/todos/{id}/finish", id).header(HttpHeaders.IF_MATCH, "\"1\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+            .andExpect(jsonPath("$.finished").value(true));
+        // without If-Match there is no precondition
+        mockMvc.perform(put("/api/v1/todos/{id}/finish", id))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("assignee updates with an outdated If-Match fail (412), tag lists match any of their tags")
+    public void assigneeUpdateWithIfMatch() throws Exception {
+        JSONObject request = testAssigneeReq();
+        // not one of the names below, otherwise the first update changes nothing
+        setName(request, "Miller");
+        JSONObject assignee = new JSONObject(mockMvc.perform(post("/api/v1/assignees").contentType(MediaType.APPLICATION_JSON).content(request.toString()))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString());
+        long id = getId(assignee);
+
+        setName(assignee, "Smith");
+        mockMvc.perform(put("/api/v1/assignees/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON).content(assignee.toString()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        setName(assignee, "Jones");
+        mockMvc.perform(put("/api/v1/assignees/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON).content(assignee.toString()))
+            .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/v1/assignees/{id}", id).header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                .contentType(MediaType.APPLICATION_JSON).content(assignee.toString()))
+            .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/v1/assignees/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Smith"));
+
+        // a list of tags matches if any of its strong tags does
+        mockMvc.perform(put("/api/v1/assignees/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\", W/\"1\", \"2\"")
+                .contentType(MediaType.APPLICATION_JSON).content(assignee.toString()))
+            .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/v1/assignees/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\", \"1\"")
+                .contentType(MediaType.APPLICATION_JSON).content(assignee.toString()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+            .andExpect(jsonPath("$.name").value("Jones"));
+    }
+}
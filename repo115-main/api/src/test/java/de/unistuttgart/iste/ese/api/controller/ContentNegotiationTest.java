@@ -0,0 +1,62 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static de.unistuttgart.iste.ese.api.controller.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Content Negotiation Tests")
+public class ContentNegotiationTest {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("todos can be requested as Smile and CBOR with the same content as JSON")
+    public void binaryEncodings() throws Exception {
+        JSONObject todo = testTodoReq();
+        mockMvc.perform(post("/api/v1/todos").contentType(MediaType.APPLICATION_JSON).content(todo.toString()))
+            .andExpect(status().isCreated());
+
+        JsonNode json = new ObjectMapper().readTree(mockMvc.perform(get("/api/v1/todos"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andReturn().getResponse().getContentAsByteArray());
+        assertEquals(getTitle(todo), json.get(0).get("title").asText());
+
+        byte[] smile = mockMvc.perform(get("/api/v1/todos").accept(SMILE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(SMILE))
+            .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(json, new ObjectMapper(new SmileFactory()).readTree(smile));
+
+        byte[] cbor = mockMvc.perform(get("/api/v1/todos").accept(CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(CBOR))
+            .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(json, new ObjectMapper(new CBORFactory()).readTree(cbor));
+    }
+}
@@ -0,0 +1,104 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import de.unistuttgart.iste.ese.api.Export.ExportJobService;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static de.unistuttgart.iste.ese.api.controller.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Export Job Tests")
+public class ExportJobTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ExportJobService exportJobService;
+
+    @Test
+    @DisplayName("an export job produces the same CSV as the direct export, also in byte ranges")
+    public void exportJobMatchesDirectExport() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/v1/todos").contentType(MediaType.APPLICATION_JSON).content(testTodoReq().toString()))
+                .andExpect(status().isCreated());
+        }
+        byte[] direct = mockMvc.perform(get("/api/v1/csv-downloads/todos"))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        String location = mockMvc.perform(post("/api/v1/csv-downloads/jobs"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.id").isString())
+            .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        JSONObject job = awaitDone(location);
+        assertEquals(3, job.getLong("rowsWritten"));
+        assertEquals(3, job.getLong("totalRows"));
+        assertEquals(1.0, job.getDouble("progress"));
+        assertEquals(direct.length, job.getLong("size"));
+
+        MockHttpServletResponse file = mockMvc.perform(get(location + "/file"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andReturn().getResponse();
+        assertArrayEquals(direct, file.getContentAsByteArray());
+
+        // resuming an interrupted download
+        MockHttpServletResponse rest = mockMvc.perform(get(location + "/file").header(HttpHeaders.RANGE, "bytes=10-"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-" + (direct.length - 1) + "/" + direct.length))
+            .andReturn().getResponse();
+        assertEquals(new String(Arrays.copyOfRange(direct, 10, direct.length), StandardCharsets.UTF_8),
+            rest.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("unknown and expired jobs are not found (404)")
+    public void expiredJobsAreRemoved() throws Exception {
+        mockMvc.perform(get("/api/v1/csv-downloads/jobs/unknown")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/csv-downloads/jobs/unknown/file")).andExpect(status().isNotFound());
+
+        String location = mockMvc.perform(post("/api/v1/csv-downloads/jobs"))
+            .andExpect(status().isAccepted())
+            .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        String id = awaitDone(location).getString("id");
+        assertTrue(exportJobService.getJob(id).getFile().toFile().isFile());
+
+        assertEquals(0, exportJobService.removeExpiredJobs(Instant.now()));
+        assertEquals(1, exportJobService.removeExpiredJobs(Instant.now().plus(Duration.ofDays(1))));
+        mockMvc.perform(get(location)).andExpect(status().isNotFound());
+        mockMvc.perform(get(location + "/file")).andExpect(status().isNotFound());
+    }
+
+    private JSONObject awaitDone(String location) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (true) {
+            JSONObject job = new JSONObject(mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+            if (!job.getString("status").equals("QUEUED") && !job.getString("status").equals("RUNNING")) {
+                assertEquals("DONE", job.getString("status"), "Export failed: " + job.optString("error"));
+                return job;
+            }
+            assertTrue(System.nanoTime() < deadline, "Export did not finish in time");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static de.unistuttgart.iste.ese.api.controller.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"management.endpoints.web.exposure.include=jfr", "todo.jfr.max-duration=10s"})
+@AutoConfigureMockMvc
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Flight Recording Tests")
+public class FlightRecordingTest {
+
+    private static final String EVENT_PREFIX = "de.unistuttgart.iste.ese.";
+
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("todo writes, classification, assignee resolution and CSV export emit JFR events")
+    public void hotPathsEmitEvents() throws Exception {
+        long assigneeId = getId(new JSONObject(mockMvc.perform(post("/api/v1/assignees")
+                .contentType(MediaType.APPLICATION_JSON).content(testAssigneeReq().toString()))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString()));
+        JSONObject todo = testTodoReq();
+        todo.remove("category");
+        setAssigneeIdList(todo, new JSONArray().put(assigneeId));
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("Classification", "TodoWrite", "AssigneeResolution", "CsvExportBatch")) {
+                recording.enable(EVENT_PREFIX + name);
+            }
+            recording.start();
+            long todoId = getId(new JSONObject(mockMvc.perform(post("/api/v1/todos")
+                    .contentType(MediaType.APPLICATION_JSON).content(todo.toString()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()));
+            setTitle(todo, "Prepare the project review");
+            mockMvc.perform(put("/api/v1/todos/{id}", todoId)
+                    .contentType(MediaType.APPLICATION_JSON).content(todo.toString()))
+                .andExpect(status().isOk());
+            mockMvc.perform(get("/api/v1/csv-downloads/todos")).andExpect(status().isOk());
+            recording.stop();
+            events = read(recording);
+        }
+
+        Map<String, List<RecordedEvent>> byType = events.stream()
+            .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+        assertTrue(byType.get(EVENT_PREFIX + "Classification").size() >= 1);
+        List<RecordedEvent> writes = byType.get(EVENT_PREFIX + "TodoWrite");
+        assertEquals(List.of("create", "update"), writes.stream().map(event -> event.getString("operation")).toList());
+        assertTrue(writes.stream().allMatch(event -> event.getLong("todoId") > 0));
+        assertEquals(2, byType.get(EVENT_PREFIX + "AssigneeResolution").size());
+        assertEquals(1, byType.get(EVENT_PREFIX + "AssigneeResolution").get(0).getInt("assignees"));
+        RecordedEvent batch = byType.get(EVENT_PREFIX + "CsvExportBatch").get(0);
+        assertEquals(1, batch.getInt("rows"));
+    }
+
+    @Test
+    @DisplayName("the actuator endpoint returns a recording and validates its parameters")
+    public void endpointRecords() throws Exception {
+        byte[] jfr = mockMvc.perform(get("/actuator/jfr").param("duration", "200ms").param("settings", "default"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsByteArray();
+        Path file = Files.createTempFile("flight-recording-test", ".jfr");
+        try {
+            Files.write(file, jfr);
+            List<String> names = RecordingFile.readAllEvents(file).stream()
+                .map(event -> event.getEventType().getName()).toList();
+            assertTrue(names.stream().anyMatch(name -> name.startsWith("jdk.")));
+            assertFalse(names.contains("jdk.InitialEnvironmentVariable"));
+            assertFalse(names.contains("jdk.InitialSystemProperty"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        mockMvc.perform(get("/actuator/jfr").param("duration", "200ms").param("settings", "unknown"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/actuator/jfr").param("duration", "1h"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private static List<RecordedEvent> read(Recording recording) throws Exception {
+        Path file = Files.createTempFile("flight-recording-test", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import de.unistuttgart.iste.ese.api.Idempotency.IdempotencyFilter;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static de.unistuttgart.iste.ese.api.controller.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Idempotency Key Tests")
+public class IdempotencyTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("a retried POST with the same key returns the first response and creates nothing")
+    public void retryIsReplayed() throws Exception {
+        String todo = testTodoReq().toString();
+        String first = mockMvc.perform(post("/api/v1/todos").header(IdempotencyFilter.HEADER, "key-1")
+                .contentType(MediaType.APPLICATION_JSON).content(todo))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+            .andReturn().getResponse().getContentAsString();
+
+        String second = mockMvc.perform(post("/api/v1/todos").header(IdempotencyFilter.HEADER, "key-1")
+                .contentType(MediaType.APPLICATION_JSON).content(todo))
+            .andExpect(status().isCreated())
+            .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+            .andExpect(header().string("ETag", "\"0\""))
+            .andReturn().getResponse().getContentAsString();
+        assertEquals(getId(new JSONObject(first)), getId(new JSONObject(second)));
+
+        // another key or no key creates a new todo
+        mockMvc.perform(post("/api/v1/todos").header(IdempotencyFilter.HEADER, "key-2")
+                .contentType(MediaType.APPLICATION_JSON).content(todo))
+            .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/todos"))
+            .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("reusing a key for a different request fails (422)")
+    public void keyReuseIsRejected() throws Exception {
+        mockMvc.perform(post("/api/v1/assignees").header(IdempotencyFilter.HEADER, "key-1")
+                .contentType(MediaType.APPLICATION_JSON).content(testAssigneeReq().toString()))
+            .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/v1/assignees").header(IdempotencyFilter.HEADER, "key-1")
+                .contentType(MediaType.APPLICATION_JSON).content(testAssigneeReq().toString()))
+            .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @DisplayName("concurrent retries wait for the first attempt")
+    public void concurrentRetriesAreDeduplicated() throws Exception {
+        String assignee = testAssigneeReq().toString();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        Callable<MockHttpServletResponse> attempt = () -> mockMvc.perform(post("/api/v1/assignees")
+                .header(IdempotencyFilter.HEADER, "key-1")
+                .contentType(MediaType.APPLICATION_JSON).content(assignee))
+            .andReturn().getResponse();
+        for (int i = 0; i < 8; i++) {
+            responses.add(executor.submit(attempt));
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Future<MockHttpServletResponse> response : responses) {
+            assertEquals(201, response.get().getStatus());
+            ids.add(getId(new JSONObject(response.get().getContentAsString())));
+        }
+        executor.shutdown();
+
+        assertEquals(1, ids.size());
+        mockMvc.perform(get("/api/v1/assignees"))
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+}
@@ -0,0 +1,86 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import de.unistuttgart.iste.ese.api.Entities.Assignee;
+import de.unistuttgart.iste.ese.api.Repositories.AssigneeRepository;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static de.unistuttgart.iste.ese.api.controller.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "todo.snapshot.ttl=1h")
+@AutoConfigureMockMvc
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("List Snapshot Tests")
+public class ListSnapshotTest {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private AssigneeRepository assigneeRepository;
+
+    @Test
+    @DisplayName("the list is served from the snapshot until a write goes through the service")
+    public void snapshotIsInvalidatedByWrites() throws Exception {
+        mockMvc.perform(post("/api/v1/assignees").contentType(MediaType.APPLICATION_JSON)
+                .content(testAssigneeReq().toString()))
+            .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/assignees"))
+            .andExpect(jsonPath("$.length()").value(1));
+
+        // bypassing the service does not invalidate
+        Assignee direct = new Assignee();
+        direct.setPrename("Eve");
+        direct.setName("Direct");
+        direct.setEmail("eve@uni-stuttgart.de");
+        assigneeRepository.save(direct);
+        mockMvc.perform(get("/api/v1/assignees"))
+            .andExpect(jsonPath("$.length()").value(1));
+
+        String created = mockMvc.perform(post("/api/v1/assignees").contentType(MediaType.APPLICATION_JSON)
+                .content(testAssigneeReq().toString()))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/v1/assignees"))
+            .andExpect(jsonPath("$.length()").value(3));
+
+        mockMvc.perform(delete("/api/v1/assignees/" + getId(new JSONObject(created))))
+            .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(get("/api/v1/assignees"))
+            .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("each encoding has its own snapshot with the same content")
+    public void snapshotPerEncoding() throws Exception {
+        mockMvc.perform(post("/api/v1/todos").contentType(MediaType.APPLICATION_JSON)
+                .content(testTodoReq().toString()))
+            .andExpect(status().isCreated());
+
+        byte[] json = mockMvc.perform(get("/api/v1/todos").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get("/api/v1/todos").accept(SMILE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(SMILE))
+            .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(new ObjectMapper().readTree(json), new ObjectMapper(new SmileFactory()).readTree(smile));
+
+        mockMvc.perform(get("/api/v1/todos").accept(MediaType.APPLICATION_XML))
+            .andExpect(status().isNotAcceptable());
+    }
+}
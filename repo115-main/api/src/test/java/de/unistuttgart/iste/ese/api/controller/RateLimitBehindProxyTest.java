@@ -0,0 +1,45 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// a real server, as the forwarded headers are applied by Tomcat, not by MockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"todo.rate-limit.crud.permits-per-second=0.01", "todo.rate-limit.crud.capacity=3"})
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Rate Limit Behind Proxy Tests")
+public class RateLimitBehindProxyTest {
+
+    @Autowired private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("clients behind the same proxy have separate budgets")
+    public void budgetIsPerForwardedClient() {
+        // all requests come from 127.0.0.1, like the nginx of the frontend they come from one proxy
+        for (int i = 0; i < 3; i++) {
+            assertEquals(HttpStatus.OK, getTodos("203.0.113.1"));
+        }
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, getTodos("203.0.113.1"));
+        assertEquals(HttpStatus.OK, getTodos("203.0.113.2"));
+    }
+
+    private HttpStatusCode getTodos(String client) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Forwarded-For", client);
+        return restTemplate.exchange("/api/v1/todos", HttpMethod.GET, new HttpEntity<>(headers), String.class)
+            .getStatusCode();
+    }
+}
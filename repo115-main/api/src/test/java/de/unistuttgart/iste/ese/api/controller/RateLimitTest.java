@@ -0,0 +1,73 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+    "todo.rate-limit.crud.permits-per-second=0.01", "todo.rate-limit.crud.capacity=3",
+    "todo.rate-limit.classify.permits-per-second=0.01", "todo.rate-limit.classify.capacity=1"})
+@AutoConfigureMockMvc
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Rate Limit Tests")
+public class RateLimitTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("a client over its budget gets 429 with Retry-After, other clients do not")
+    public void budgetIsPerClient() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/todos").with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/v1/todos").with(remoteAddr("10.0.0.1")))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("Retry-After", "100"));
+        mockMvc.perform(get("/api/v1/todos").with(remoteAddr("10.0.0.2")))
+            .andExpect(status().isOk());
+
+        assertEquals(1.0, meterRegistry.get("todo.ratelimit.rejected").tag("endpoint", "crud").counter().count());
+    }
+
+    @Test
+    @DisplayName("classify has its own budget and management endpoints are not limited")
+    public void budgetsAreSeparate() throws Exception {
+        String body = "{\"title\": \"team meeting\"}";
+        mockMvc.perform(post("/api/v1/todos/classify").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/todos/classify").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isTooManyRequests());
+        // the CRUD budget is untouched
+        mockMvc.perform(get("/api/v1/todos"))
+            .andExpect(status().isOk());
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+        }
+        assertEquals(1.0, meterRegistry.get("todo.ratelimit.rejected").tag("endpoint", "classify").counter().count());
+        assertEquals(0.0, meterRegistry.get("todo.ratelimit.rejected").tag("endpoint", "crud").counter().count());
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import de.unistuttgart.iste.ese.api.Replica.ReplicaDataSource;
+import jakarta.servlet.http.Cookie;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static de.unistuttgart.iste.ese.api.controller.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "todo.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Read Replica Routing Tests")
+public class ReadReplicaRoutingTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired @Qualifier("primaryDataSource") private DataSource primary;
+    @Autowired @Qualifier("replicaDataSource") private DataSource replica;
+
+    @BeforeEach
+    public void copySchemaToReplica() {
+        // the replica is a separate, empty database that never receives the writes,
+        // so every read served by it is easy to tell apart
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("DROP ALL OBJECTS");
+        List<String> schema = new JdbcTemplate(primary).queryForList("SCRIPT NODATA", String.class);
+        schema.forEach(replicaJdbc::execute);
+    }
+
+    @Test
+    @DisplayName("reads go to the replica unless the client wrote recently")
+    public void readsAreRoutedToReplica() throws Exception {
+        Cookie sticky = mockMvc.perform(post("/api/v1/todos").contentType(MediaType.APPLICATION_JSON_VALUE).content(testTodoReq().toString()))
+            .andExpect(status().isCreated())
+            .andExpect(cookie().exists("rw-sticky"))
+            .andReturn().getResponse().getCookie("rw-sticky");
+
+        // without the cookie: served by the (empty) replica
+        mockMvc.perform(get("/api/v1/todos"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+
+        // read-your-writes: served by the primary
+        mockMvc.perform(get("/api/v1/todos").cookie(sticky))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1));
+
+        Cookie expired = new Cookie("rw-sticky", Long.toString(System.currentTimeMillis() - 1));
+        mockMvc.perform(get("/api/v1/todos").cookie(expired))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("assignee writes validate against the primary")
+    public void writesUsePrimary() throws Exception {
+        JSONObject assignee = testAssigneeReq();
+        long id = getId(new JSONObject(mockMvc.perform(post("/api/v1/assignees").contentType(MediaType.APPLICATION_JSON_VALUE).content(assignee.toString()))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString()));
+
+        // the assignee only exists on the primary, creating a todo for it must still succeed
+        JSONObject todo = testTodoReq();
+        setAssigneeIdList(todo, new JSONArray().put(id));
+        mockMvc.perform(post("/api/v1/todos").contentType(MediaType.APPLICATION_JSON_VALUE).content(todo.toString()))
+            .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("an unavailable replica falls back to the primary")
+    public void unavailableReplicaFallsBackToPrimary() throws Exception {
+        DataSource brokenReplica = mock(DataSource.class);
+        DataSource primaryMock = mock(DataSource.class);
+        Connection primaryConnection = mock(Connection.class);
+        when(brokenReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(primaryMock.getConnection()).thenReturn(primaryConnection);
+
+        ReplicaDataSource dataSource = new ReplicaDataSource(brokenReplica, primaryMock, Duration.ofMinutes(1));
+        assertSame(primaryConnection, dataSource.getConnection());
+        // within the retry interval the replica is not asked again
+        assertSame(primaryConnection, dataSource.getConnection());
+        verify(brokenReplica, times(1)).getConnection();
+    }
+}
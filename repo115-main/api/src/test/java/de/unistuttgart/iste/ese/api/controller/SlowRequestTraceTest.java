@@ -0,0 +1,107 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static de.unistuttgart.iste.ese.api.controller.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "todo.trace.threshold=0ms", "todo.trace.slowest=2", "todo.trace.max-statements=1",
+    "management.endpoints.web.exposure.include=slowrequests"})
+@AutoConfigureMockMvc
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Slow Request Trace Tests")
+public class SlowRequestTraceTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("requests over the threshold are traced with SQL, model and serialization timings")
+    public void requestsAreTraced() throws Exception {
+        mockMvc.perform(post("/api/v1/todos/classify").contentType(MediaType.APPLICATION_JSON)
+                .content(new JSONObject().put("title", "team meeting").toString()))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/todos")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/assignees").contentType(MediaType.APPLICATION_JSON)
+                .content(testAssigneeReq().toString()))
+            .andExpect(status().isCreated());
+
+        JSONObject traces = new JSONObject(mockMvc.perform(get("/actuator/slowrequests"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.threshold").value("PT0S"))
+            .andExpect(jsonPath("$.slowest.length()").value(2))
+            .andReturn().getResponse().getContentAsString());
+
+        // newest first, the actuator request itself is not traced
+        JSONArray overThreshold = traces.getJSONArray("overThreshold");
+        assertEquals(3, overThreshold.length());
+
+        JSONObject created = overThreshold.getJSONObject(0);
+        assertEquals("POST", created.getString("method"));
+        assertEquals("/api/v1/assignees", created.getString("path"));
+        assertEquals(201, created.getInt("status"));
+        assertTrue(created.getInt("statementCount") >= 1);
+        assertEquals(0, created.getInt("modelCalls"));
+
+        JSONObject list = overThreshold.getJSONObject(1);
+        assertEquals("/api/v1/todos", list.getString("path"));
+        assertEquals(1, list.getInt("statementCount"));
+        JSONArray statements = list.getJSONArray("statements");
+        assertEquals(1, statements.length());
+        assertTrue(statements.getJSONObject(0).getString("sql").toLowerCase().startsWith("select"));
+        // the serialization is part of the request, the SQL as well
+        assertTrue(list.getLong("serializationMicros") > 0);
+        assertTrue(list.getLong("totalMicros") >= list.getLong("sqlMicros") + list.getLong("serializationMicros"));
+
+        JSONObject classified = overThreshold.getJSONObject(2);
+        assertEquals("/api/v1/todos/classify", classified.getString("path"));
+        assertEquals(1, classified.getInt("modelCalls"));
+        assertEquals(0, classified.getInt("statementCount"));
+        assertTrue(classified.getLong("modelMicros") > 0);
+
+        mockMvc.perform(delete("/actuator/slowrequests")).andExpect(status().isNoContent());
+        mockMvc.perform(get("/actuator/slowrequests"))
+            .andExpect(jsonPath("$.slowest.length()").value(0))
+            .andExpect(jsonPath("$.overThreshold.length()").value(0));
+    }
+
+    @Nested
+    @TestPropertySource(properties = "todo.trace.enabled=false")
+    @DisplayName("with tracing disabled")
+    public class Disabled {
+
+        @Autowired private MockMvc mockMvc;
+        @Autowired private DataSource dataSource;
+
+        @Test
+        @DisplayName("requests are not traced and statements are not proxied")
+        public void nothingIsTraced() throws Exception {
+            mockMvc.perform(get("/api/v1/todos")).andExpect(status().isOk());
+
+            mockMvc.perform(get("/actuator/slowrequests"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.slowest.length()").value(0))
+                .andExpect(jsonPath("$.overThreshold.length()").value(0));
+            assertFalse(dataSource instanceof ProxyDataSource);
+        }
+    }
+}
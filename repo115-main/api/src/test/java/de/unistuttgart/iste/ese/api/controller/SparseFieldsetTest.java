@@ -0,0 +1,92 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static de.unistuttgart.iste.ese.api.controller.TestUtil.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Sparse Fieldset Tests")
+public class SparseFieldsetTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("todos: only the requested fields are returned")
+    public void todoFields() throws Exception {
+        JSONObject assignee = createAssignee();
+        JSONObject todo = testTodoReq();
+        setAssigneeIdList(todo, new JSONArray().put(getId(assignee)));
+        todo = new JSONObject(mockMvc.perform(post("/api/v1/todos").contentType(MediaType.APPLICATION_JSON).content(todo.toString()))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString());
+
+        mockMvc.perform(get("/api/v1/todos").param("fields", "id,title,dueDate,finished"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].length()").value(4))
+            .andExpect(jsonPath("$[0].id").value(getId(todo)))
+            .andExpect(jsonPath("$[0].title").value(getTitle(todo)))
+            .andExpect(jsonPath("$[0].dueDate").value(todo.getString("dueDate")))
+            .andExpect(jsonPath("$[0].finished").value(false))
+            .andExpect(jsonPath("$[0].assigneeList").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/todos/{id}", getId(todo)).param("fields", "title, assigneeList"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.assigneeList.length()").value(1))
+            .andExpect(jsonPath("$.assigneeList[0].email").value(getEmail(assignee)));
+
+        mockMvc.perform(get("/api/v1/todos/{id}", getId(todo) + 1).param("fields", "title"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("assignees: only the requested fields are returned")
+    public void assigneeFields() throws Exception {
+        JSONObject assignee = createAssignee();
+
+        mockMvc.perform(get("/api/v1/assignees").param("fields", "email"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].length()").value(1))
+            .andExpect(jsonPath("$[0].email").value(getEmail(assignee)));
+
+        mockMvc.perform(get("/api/v1/assignees/{id}", getId(assignee)).param("fields", "id,name"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.name").value(getName(assignee)));
+    }
+
+    @Test
+    @DisplayName("unknown or empty fields fail (400)")
+    public void invalidFields() throws Exception {
+        mockMvc.perform(get("/api/v1/todos").param("fields", "title,password"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/todos").param("fields", " , "))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/assignees/1").param("fields", "todos"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private JSONObject createAssignee() throws Exception {
+        return new JSONObject(mockMvc.perform(post("/api/v1/assignees").contentType(MediaType.APPLICATION_JSON).content(testAssigneeReq().toString()))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString());
+    }
+}
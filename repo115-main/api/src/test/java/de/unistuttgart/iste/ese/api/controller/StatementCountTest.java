@@ -0,0 +1,235 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import de.unistuttgart.iste.ese.api.Entities.Assignee;
+import de.unistuttgart.iste.ese.api.Entities.Category;
+import de.unistuttgart.iste.ese.api.Entities.Priority;
+import de.unistuttgart.iste.ese.api.Entities.ToDo;
+import de.unistuttgart.iste.ese.api.Repositories.AssigneeRepository;
+import de.unistuttgart.iste.ese.api.Repositories.ToDoRepository;
+import de.unistuttgart.iste.ese.api.Search.AssigneeSuggestIndex;
+import de.unistuttgart.iste.ese.api.Search.TodoSearchIndex;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Pins the number of JDBC statements of every endpoint, with 1 and with 1000
+ * todos, assignees and archived todos in the database. The counts must not grow
+ * with the data: an additional lazy load or per-row lookup (N+1) changes them and
+ * fails the test. All deviations of a run are reported together.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Import(StatementCounter.Configuration.class)
+@DisplayName("Statement Count Tests")
+public class StatementCountTest {
+
+    private static final long ARCHIVED_ID_OFFSET = 1_000_000;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ToDoRepository toDoRepository;
+    @Autowired private AssigneeRepository assigneeRepository;
+    @Autowired private TodoSearchIndex todoSearchIndex;
+    @Autowired private AssigneeSuggestIndex assigneeSuggestIndex;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private final List<String> deviations = new ArrayList<>();
+    private List<Long> assigneeIds;
+    private List<Long> todoIds;
+
+    @ParameterizedTest(name = "{0} rows")
+    @ValueSource(ints = {1, 1000})
+    @DisplayName("todo endpoints")
+    public void todoEndpoints(int rows) throws Exception {
+        seed(rows);
+        long todoId = todoIds.get(0);
+        // one assignee id per row up to 50, so a lookup per assignee shows up in the counts
+        String body = todoRequest(Math.min(rows, 50)).toString();
+
+        expect("POST /todos", post("/api/v1/todos").contentType(MediaType.APPLICATION_JSON).content(body),
+            1, 2, 0, 0);
+        expect("GET /todos", get("/api/v1/todos"), 1, 0, 0, 0);
+        expect("GET /todos?fields", get("/api/v1/todos").param("fields", "id,title,assigneeList"), 2, 0, 0, 0);
+        expect("GET /todos?includeArchived", get("/api/v1/todos").param("includeArchived", "true"), 2, 0, 0, 0);
+        expect("GET /todos/search", get("/api/v1/todos/search").param("q", "groceries"), 1, 0, 0, 0);
+        expect("GET /todos/archive", get("/api/v1/todos/archive"), 1, 0, 0, 0);
+        expect("GET /todos/{id}", get("/api/v1/todos/{id}", todoId), 2, 0, 0, 0);
+        expect("GET /todos/{id}?fields", get("/api/v1/todos/{id}", todoId).param("fields", "id,title"), 1, 0, 0, 0);
+        expect("GET /todos/{id}?includeArchived", get("/api/v1/todos/{id}", ARCHIVED_ID_OFFSET)
+            .param("includeArchived", "true"), 3, 0, 0, 0);
+        expect("PUT /todos/{id}", put("/api/v1/todos/{id}", todoId).contentType(MediaType.APPLICATION_JSON).content(body),
+            3, 1, 1, 1);
+        expect("PUT /todos/{id}/finish", put("/api/v1/todos/{id}/finish", todoId), 2, 0, 1, 0);
+        expect("POST /todos/classify", post("/api/v1/todos/classify").contentType(MediaType.APPLICATION_JSON)
+            .content(new JSONObject().put("title", "set deadline").toString()), 0, 0, 0, 0);
+        expect("DELETE /todos/{id}", delete("/api/v1/todos/{id}", todoId), 2, 0, 0, 2);
+
+        assertEquals(List.of(), deviations);
+    }
+
+    @ParameterizedTest(name = "{0} rows")
+    @ValueSource(ints = {1, 1000})
+    @DisplayName("assignee endpoints")
+    public void assigneeEndpoints(int rows) throws Exception {
+        seed(rows);
+        long assigneeId = assigneeIds.get(assigneeIds.size() - 1);
+        JSONObject assignee = TestUtil.testAssigneeReq();
+
+        expect("POST /assignees", post("/api/v1/assignees").contentType(MediaType.APPLICATION_JSON)
+            .content(assignee.toString()), 0, 1, 0, 0);
+        expect("GET /assignees", get("/api/v1/assignees"), 1, 0, 0, 0);
+        expect("GET /assignees?fields", get("/api/v1/assignees").param("fields", "id,email"), 1, 0, 0, 0);
+        expect("GET /assignees/suggest", get("/api/v1/assignees/suggest").param("q", "erika"), 0, 0, 0, 0);
+        expect("GET /assignees/{id}", get("/api/v1/assignees/{id}", assigneeId), 1, 0, 0, 0);
+        expect("GET /assignees/{id}?fields", get("/api/v1/assignees/{id}", assigneeId).param("fields", "id,email"),
+            1, 0, 0, 0);
+        // the count query is skipped when the first page is not full
+        expect("GET /assignees/{id}/todos", get("/api/v1/assignees/{id}/todos", assigneeIds.get(0)),
+            rows == 1 ? 3 : 4, 0, 0, 0);
+        expect("GET /assignees/workload", get("/api/v1/assignees/workload"), 1, 0, 0, 0);
+        TestUtil.setEmail(assignee, TestUtil.getRandomMail("erika", "mustermann"));
+        expect("PUT /assignees/{id}", put("/api/v1/assignees/{id}", assigneeId).contentType(MediaType.APPLICATION_JSON)
+            .content(assignee.toString()), 2, 0, 1, 0);
+        expect("DELETE /assignees/{id}", delete("/api/v1/assignees/{id}", assigneeIds.get(0)), 2, 0, 1, 3);
+
+        assertEquals(List.of(), deviations);
+    }
+
+    @ParameterizedTest(name = "{0} rows")
+    @ValueSource(ints = {1, 1000})
+    @DisplayName("CSV export endpoints")
+    public void csvExportEndpoints(int rows) throws Exception {
+        seed(rows);
+
+        expect("GET /csv-downloads/todos", get("/api/v1/csv-downloads/todos"), 1, 0, 0, 0);
+        MvcResult started = expect("POST /csv-downloads/jobs", post("/api/v1/csv-downloads/jobs"), 0, 0, 0, 0);
+        String location = started.getResponse().getHeader(HttpHeaders.LOCATION);
+        awaitDone(location);
+        expect("GET /csv-downloads/jobs/{id}", get(location), 0, 0, 0, 0);
+        expect("GET /csv-downloads/jobs/{id}/file", get(location + "/file"), 0, 0, 0, 0);
+
+        assertEquals(List.of(), deviations);
+    }
+
+    /**
+     * Performs the request and records a deviation if it did not succeed with
+     * exactly the given numbers of statements.
+     */
+    private MvcResult expect(String endpoint, RequestBuilder request,
+                             int select, int insert, int update, int delete) throws Exception {
+        StatementCounter.reset();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        StatementCounter.Count actual = StatementCounter.count();
+        StatementCounter.Count expected = new StatementCounter.Count(select, insert, update, delete, 0);
+        int status = result.getResponse().getStatus();
+        if (status >= 300) {
+            deviations.add(endpoint + ": status " + status);
+        } else if (!expected.equals(actual)) {
+            deviations.add(endpoint + ": expected " + expected + " but was " + actual);
+        }
+        return result;
+    }
+
+    /**
+     * Stores the given number of assignees, todos and archived todos. Every todo
+     * is assigned to the first assignee and to one assignee of its own, so
+     * per-row lazy loads show up in the counts.
+     */
+    private void seed(int rows) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            List<Assignee> assignees = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                Assignee assignee = new Assignee();
+                assignee.setPrename("Erika");
+                assignee.setName("Mustermann");
+                assignee.setEmail("erika.mustermann" + i + "@uni-stuttgart.de");
+                assignees.add(assignee);
+            }
+            assignees = assigneeRepository.saveAll(assignees);
+
+            List<ToDo> todos = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                ToDo todo = new ToDo();
+                todo.setTitle("Buy groceries " + i);
+                todo.setDescription("Buy milk eggs bread apples and cereal");
+                todo.setCreatedDate(LocalDate.now());
+                todo.setDueDate(LocalDate.now().plusDays(1 + i % 30));
+                todo.setPriority(Priority.values()[i % 3]);
+                todo.setCategory(Category.PRIVATE);
+                todo.setAssigneeList(i == 0 ? List.of(assignees.get(0)) : List.of(assignees.get(0), assignees.get(i)));
+                todos.add(todo);
+            }
+            todos = toDoRepository.saveAll(todos);
+
+            assigneeIds = assignees.stream().map(Assignee::getId).toList();
+            todoIds = todos.stream().map(ToDo::getId).toList();
+        });
+
+        List<Object[]> archived = new ArrayList<>(rows);
+        List<Object[]> archivedAssignees = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            archived.add(new Object[] {ARCHIVED_ID_OFFSET + i, "Archived " + i, LocalDate.now().minusDays(40)});
+            archivedAssignees.add(new Object[] {ARCHIVED_ID_OFFSET + i, assigneeIds.get(i)});
+        }
+        jdbcTemplate.batchUpdate("insert into todos_archive (id, title, finished, finished_date, archived_date, version)"
+            + " values (?, ?, true, ?, current_date, 0)", archived);
+        jdbcTemplate.batchUpdate("insert into todo_assignee_archive (todo_id, assignee_id) values (?, ?)", archivedAssignees);
+
+        // the indexes were built at startup, before the rows existed
+        todoSearchIndex.build();
+        assigneeSuggestIndex.build();
+    }
+
+    private void awaitDone(String location) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            String status = new JSONObject(mockMvc.perform(get(location)).andReturn().getResponse().getContentAsString())
+                .getString("status");
+            if (status.equals("DONE")) {
+                return;
+            }
+            assertTrue(status.equals("QUEUED") || status.equals("RUNNING"), "Export job " + status);
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Export job did not finish in time");
+    }
+
+    private JSONObject todoRequest(int assignees) throws Exception {
+        JSONObject todo = TestUtil.testTodoReq();
+        TestUtil.setCategory(todo, "work");
+        JSONArray ids = new JSONArray();
+        for (long id : assigneeIds.subList(0, assignees)) {
+            ids.put(id);
+        }
+        TestUtil.setAssigneeIdList(todo, ids);
+        return todo;
+    }
+}
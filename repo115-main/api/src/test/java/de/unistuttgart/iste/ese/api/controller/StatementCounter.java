@@ -0,0 +1,94 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Counts the JDBC statements executed by the current thread, by type.
+ * <p>
+ * Import {@link Configuration} into a test to wrap the application data source
+ * in a counting proxy. MockMvc runs the whole request (including lazy loads
+ * during serialization) on the test thread, so {@link #reset()} before a
+ * request and {@link #count()} after it give the statements of that request.
+ * A JDBC batch counts as one statement. Id sequence fetches are not counted:
+ * the ids are allocated in blocks of 50, so whether an insert needs one depends
+ * on how many rows were inserted before.
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[5]);
+
+    private StatementCounter() {
+    }
+
+    /**
+     * Statements of one type, as counted since the last {@link #reset()}.
+     */
+    public record Count(long select, long insert, long update, long delete, long other) {
+
+        @Override
+        public String toString() {
+            return "select=" + select + " insert=" + insert + " update=" + update + " delete=" + delete + " other=" + other;
+        }
+    }
+
+    public static void reset() {
+        COUNTS.remove();
+    }
+
+    public static Count count() {
+        long[] counts = COUNTS.get();
+        return new Count(counts[0], counts[1], counts[2], counts[3], counts[4]);
+    }
+
+    private static void record(String query) {
+        if (query.toLowerCase(Locale.ROOT).contains("next value for")) {
+            return;
+        }
+        int index = switch (QueryUtils.getQueryType(query)) {
+            case SELECT -> 0;
+            case INSERT -> 1;
+            case UPDATE -> 2;
+            case DELETE -> 3;
+            default -> 4;
+        };
+        COUNTS.get()[index]++;
+    }
+
+    @TestConfiguration
+    public static class Configuration {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            QueryExecutionListener listener = new QueryExecutionListener() {
+                @Override
+                public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                }
+
+                @Override
+                public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                    queryInfoList.forEach(queryInfo -> record(queryInfo.getQuery()));
+                }
+            };
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                        return ProxyDataSourceBuilder.create("counted", dataSource).listener(listener).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
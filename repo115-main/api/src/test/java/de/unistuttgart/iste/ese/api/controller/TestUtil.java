@@ -7,6 +7,7 @@ import org.json.JSONObject;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TestUtil {
 
@@ -15,6 +16,8 @@ public class TestUtil {
     private static final String[] todoTitles = {"Buy groceries", "Do laundry", "Clean house", "Water plants", "Feed cat", "Study for exam", "Write paper", "Call Mom", "Pay bills", "Cook dinner", "Mow lawn", "Fix leak", "Wash car", "Pick up kids", "Go to gym", "Walk dog", "Take out trash", "Get haircut", "Book flight", "Renew passport", "Check mail", "Schedule appointment", "Get oil change", "Buy gift", "Return books"};
     private static final String[] todoDescriptions = {"Buy milk eggs bread apples and cereal", "Wash dry and fold clothes", "Vacuum dust and mop all rooms", "Give each plant a cup of water", "Give cat half a can of food", "Review notes and practice problems", "Write introduction methods and results", "Ask how she is doing and tell her about your day", "Pay rent electricity and phone bill", "Make spaghetti with meatballs and garlic bread", "Cut grass trim hedges and rake leaves", "Fix leaky faucet in bathroom", "Clean car inside and out", "Pick up kids from school and drive them to soccer practice", "Lift weights run on treadmill and do sit-ups", "Walk dog around the block", "Take out trash cans and recycling bins", "Get haircut at local barber shop", "Book flight to Hawaii for vacation", "Renew passport at post office", "Check mail for letters and packages", "Schedule dentist appointment for next month", "Get oil change at auto repair shop", "Buy gift for friend's birthday", "Return books to library"};
     private static final String[] department = {"iste", "ipvs", "sec"};
+    // emails are unique, so every generated one gets its own number
+    private static final AtomicInteger mailCounter = new AtomicInteger();
 
     private TestUtil() {
     }
@@ -52,7 +55,7 @@ public class TestUtil {
     }
 
     public static String getRandomMail(String prename, String name) {
-        return getRandomMail(prename + "." + name);
+        return getRandomMail(prename + "." + name + mailCounter.incrementAndGet());
     }
 
     private static String getRandomPriority() {
@@ -0,0 +1,108 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import de.unistuttgart.iste.ese.api.Services.TodoArchiveService;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static de.unistuttgart.iste.ese.api.controller.TestUtil.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"todo.archive.retention-days=30", "todo.archive.batch-size=3"})
+@AutoConfigureMockMvc
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Todo Archive Tests")
+public class TodoArchiveTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private TodoArchiveService todoArchiveService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("todos finished before the retention period are moved to the archive with their assignees")
+    public void oldFinishedTodosAreArchived() throws Exception {
+        long assigneeId = getId(new JSONObject(mockMvc.perform(post("/api/v1/assignees")
+                .contentType(MediaType.APPLICATION_JSON).content(testAssigneeReq().toString()))
+            .andReturn().getResponse().getContentAsString()));
+        JSONObject todo = testTodoReq();
+        setAssigneeIdList(todo, new JSONArray().put(assigneeId));
+        long oldId = createTodo(todo);
+        long recentId = createTodo(testTodoReq());
+        long openId = createTodo(testTodoReq());
+        finish(oldId, LocalDate.now().minusDays(31));
+        finish(recentId, LocalDate.now().minusDays(29));
+
+        assertEquals(1, todoArchiveService.archiveFinishedTodos());
+        assertEquals(0, todoArchiveService.archiveFinishedTodos());
+
+        mockMvc.perform(get("/api/v1/todos"))
+            .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(get("/api/v1/todos/" + oldId))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/todos/" + oldId).param("includeArchived", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.archivedDate").value(LocalDate.now().toString()))
+            .andExpect(jsonPath("$.assigneeList[0].id").value(assigneeId));
+        mockMvc.perform(get("/api/v1/todos").param("includeArchived", "true"))
+            .andExpect(jsonPath("$.length()").value(3));
+        mockMvc.perform(get("/api/v1/todos/archive"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(oldId));
+        mockMvc.perform(get("/api/v1/todos/" + openId))
+            .andExpect(status().isOk());
+
+        // archived links do not block deleting the assignee
+        mockMvc.perform(delete("/api/v1/assignees/" + assigneeId))
+            .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(get("/api/v1/todos/archive"))
+            .andExpect(jsonPath("$[0].assigneeList.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("archival runs in batches until no old todo is left")
+    public void archivalRunsInBatches() throws Exception {
+        for (int i = 0; i < 7; i++) {
+            finish(createTodo(testTodoReq()), LocalDate.now().minusDays(40 + i));
+        }
+        assertEquals(7, todoArchiveService.archiveFinishedTodos());
+        mockMvc.perform(get("/api/v1/todos"))
+            .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/v1/todos/archive"))
+            .andExpect(jsonPath("$.length()").value(7));
+    }
+
+    @Test
+    @DisplayName("fields cannot be combined with includeArchived")
+    public void fieldsWithArchiveIsRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/todos").param("includeArchived", "true").param("fields", "id"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private long createTodo(JSONObject todo) throws Exception {
+        return getId(new JSONObject(mockMvc.perform(post("/api/v1/todos")
+                .contentType(MediaType.APPLICATION_JSON).content(todo.toString()))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString()));
+    }
+
+    private void finish(long id, LocalDate finishedDate) throws Exception {
+        mockMvc.perform(put("/api/v1/todos/" + id + "/finish"))
+            .andExpect(status().isOk());
+        // backdate, the API always finishes today
+        jdbcTemplate.update("update todos set finished_date = ? where id = ?", finishedDate, id);
+    }
+}
@@ -168,6 +168,23 @@ public class TodoControllerTest {
         createTodo(testTodo, status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("validation: todo update with an unknown assigneeId fails (400)")
+    public void updateInvalidTodoUnknownAssigneeId() throws Exception {
+        JSONObject todoJson = createTodoSuccessful(testTodo);
+        JSONArray assigneeIdList = new JSONArray();
+        assigneeIdList.put(getId(assigneeList.getFirst()));
+        assigneeIdList.put(999_999);
+        setAssigneeIdList(testTodo, assigneeIdList);
+        setTitle(testTodo, "Never saved");
+
+        mockMvc.perform(put("/api/v1/todos/{id}", getId(todoJson)).contentType(MediaType.APPLICATION_JSON_VALUE).content(testTodo.toString()))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/todos/{id}", getId(todoJson)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value(todoJson.getString("title")));
+    }
+
     @Test
     @DisplayName("validation: todo with invalid dueDate fails (400)")
     public void createInvalidTodoInvalidDueDate() throws Exception {
@@ -188,6 +205,20 @@ public class TodoControllerTest {
         createTodo(testTodo, status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("priority and category are parsed ignoring case and returned normalized")
+    public void priorityAndCategoryIgnoreCase() throws Exception {
+        setPriority(testTodo, "high");
+        setCategory(testTodo, "Work");
+        createTodo(testTodo,
+            status().isCreated(),
+            jsonPath("$.priority").value("HIGH"),
+            jsonPath("$.category").value("work"));
+
+        setCategory(testTodo, "hobby");
+        createTodo(testTodo, status().isBadRequest());
+    }
+
     @Test
     @DisplayName("delete the created todo (200) and try to retrieve it (404)")
     public void deleteTodo() throws Exception {
@@ -0,0 +1,96 @@
+package de.unistuttgart.iste.ese.api.controller;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static de.unistuttgart.iste.ese.api.controller.TestUtil.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles(profiles = "test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Todo Search Tests")
+public class TodoSearchTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("search ranks todos by relevance and ignores case and punctuation")
+    public void searchRanksByRelevance() throws Exception {
+        long budget = createTodo("Budget meeting", "Prepare the annual budget, budget review!");
+        long meeting = createTodo("Team meeting", "Discuss the product launch");
+        createTodo("Buy groceries", "Milk eggs bread");
+
+        mockMvc.perform(get("/api/v1/todos/search").param("q", "BUDGET"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(budget));
+
+        mockMvc.perform(get("/api/v1/todos/search").param("q", "budget meeting"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].id").value(budget))
+            .andExpect(jsonPath("$[1].id").value(meeting));
+
+        mockMvc.perform(get("/api/v1/todos/search").param("q", "meeting").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("the index follows updates and deletes")
+    public void searchFollowsWrites() throws Exception {
+        long id = createTodo("Walk dog", "Walk dog around the block");
+
+        JSONObject update = new JSONObject();
+        setTitle(update, "Wash car");
+        setDescription(update, "Clean car inside and out");
+        setCategory(update, "private");
+        mockMvc.perform(put("/api/v1/todos/{id}", id).contentType(MediaType.APPLICATION_JSON_VALUE).content(update.toString()))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/todos/search").param("q", "dog"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/v1/todos/search").param("q", "car"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(id));
+
+        mockMvc.perform(delete("/api/v1/todos/{id}", id)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/todos/search").param("q", "car"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("validation: empty query or invalid limit fails (400)")
+    public void searchValidation() throws Exception {
+        mockMvc.perform(get("/api/v1/todos/search").param("q", "  "))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/todos/search").param("q", "car").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private long createTodo(String title, String description) throws Exception {
+        JSONObject todo = testTodoReq();
+        setTitle(todo, title);
+        setDescription(todo, description);
+        MockHttpServletResponse response = mockMvc.perform(post("/api/v1/todos").contentType(MediaType.APPLICATION_JSON_VALUE).content(todo.toString()))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse();
+        return getId(new JSONObject(response.getContentAsString()));
+    }
+}